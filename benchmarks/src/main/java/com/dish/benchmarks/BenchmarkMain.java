@@ -0,0 +1,30 @@
+package com.dish.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (e.g. a benchmark regex, -f, -wi, -i),
+ * always attaches the GC profiler so every result comes with its allocation rate (gc.alloc.rate.norm
+ * is bytes per operation), and writes the results as JSON to results/latest.json unless -rff says otherwise.
+ * Compare that file against results/baseline.json to spot regressions.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Djava.awt.headless=true");
+        if (!commandLine.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result("results/latest.json");
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.dish.dao;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dish.model.Dish;
+import com.dish.model.SampleDishes;
+
+/**
+ * Cost of turning result set rows into {@link Dish} objects with {@link DishDAO#extractDishFromResultSet},
+ * one page of rows per operation. The rows come from the JDK's in-memory CachedRowSet, so the numbers
+ * cover the mapping and column lookups by label, not the network or the driver's wire decoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RowMappingBenchmark {
+
+    private static final String[] COLUMNS = {"id", "name", "type", "price", "ingredients", "introduction", "photo_path"};
+    private static final int[] TYPES = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR};
+
+    @Param({"100"})
+    public int rows;
+
+    private CachedRowSet rowSet;
+
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnLabel(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+        }
+        rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        for (Dish dish : SampleDishes.create(rows, new Random(42))) {
+            rowSet.moveToInsertRow();
+            rowSet.updateInt(1, dish.getId());
+            rowSet.updateString(2, dish.getName());
+            rowSet.updateString(3, dish.getType());
+            rowSet.updateDouble(4, dish.getPrice());
+            rowSet.updateString(5, dish.getIngredients());
+            rowSet.updateString(6, dish.getIntroduction());
+            rowSet.updateString(7, dish.getPhotoPath());
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) throws SQLException {
+        rowSet.beforeFirst();
+        while (rowSet.next()) {
+            blackhole.consume(DishDAO.extractDishFromResultSet(rowSet));
+        }
+    }
+}
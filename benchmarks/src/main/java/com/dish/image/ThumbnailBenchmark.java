@@ -0,0 +1,98 @@
+package com.dish.image;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Photo to table-cell thumbnail (50x50), from a JPEG on disk.
+ * <ul>
+ * <li>{@code legacyScaledInstance}: what the table used to do per cell, ImageIO.read of the full image then
+ * getScaledInstance(SCALE_SMOOTH) wrapped in an ImageIcon (which waits for the scaling to finish).</li>
+ * <li>{@code thumbnailDecoder}: the current path, subsampled decode plus stepwise bilinear scaling.</li>
+ * <li>{@code scaleDownOnly}: just the scaling step, from an already decoded image.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ThumbnailBenchmark {
+
+    private static final int THUMBNAIL_SIZE = 50;
+
+    @Param({"1600x1200"})
+    public String sourceSize;
+
+    private File photo;
+    private BufferedImage decoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] size = sourceSize.split("x");
+        BufferedImage source = createPhoto(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        photo = File.createTempFile("dish-benchmark", ".jpg");
+        ImageIO.write(source, "jpg", photo);
+        decoded = ImageIO.read(photo);
+    }
+
+    @TearDown
+    public void tearDown() {
+        photo.delete();
+    }
+
+    // Gradients and noise, so the JPEG has real entropy to decode instead of flat blocks
+    private static BufferedImage createPhoto(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(200, 80, 40), width, height, new Color(40, 160, 90)));
+        g.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            g.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 5 + random.nextInt(60), 5 + random.nextInt(60));
+        }
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public ImageIcon legacyScaledInstance() throws IOException {
+        BufferedImage image = ImageIO.read(photo);
+        return new ImageIcon(image.getScaledInstance(THUMBNAIL_SIZE, THUMBNAIL_SIZE, Image.SCALE_SMOOTH));
+    }
+
+    @Benchmark
+    public BufferedImage thumbnailDecoder() throws IOException {
+        return ThumbnailDecoder.decode(photo, THUMBNAIL_SIZE, THUMBNAIL_SIZE, false);
+    }
+
+    @Benchmark
+    public BufferedImage scaleDownOnly() {
+        return ThumbnailDecoder.scaleDown(decoded, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+    }
+}
@@ -0,0 +1,112 @@
+package com.dish.io;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dish.model.Dish;
+import com.dish.model.SampleDishes;
+
+/**
+ * Decoding the same dishes from an in-memory TXT file (BufferedReader + Dish.fromFileString, as the
+ * import pipeline used to) and from a binary catalog, plus writing the catalog. One whole file per op.
+ * readMappedText parses the same TXT bytes from a temp file with MappedTextDishReader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CatalogCodecBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private Dish[] dishes;
+    private byte[] text;
+    private byte[] catalog;
+    private File textFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        dishes = SampleDishes.create(rows, new Random(42));
+        ByteArrayOutputStream textBytes = new ByteArrayOutputStream();
+        try (TextDishWriter writer = new TextDishWriter(textBytes)) {
+            for (Dish dish : dishes) {
+                writer.write(dish);
+            }
+        }
+        text = textBytes.toByteArray();
+        catalog = writeCatalog();
+        textFile = File.createTempFile("dishes", ".txt");
+        Files.write(textFile.toPath(), text);
+    }
+
+    @TearDown
+    public void tearDown() {
+        textFile.delete();
+    }
+
+    @Benchmark
+    public void readText(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(text), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(Dish.fromFileString(line));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readMappedText(Blackhole blackhole) throws IOException {
+        try (MappedTextDishReader reader = new MappedTextDishReader(textFile)) {
+            Dish dish;
+            while ((dish = reader.read()) != null) {
+                blackhole.consume(dish);
+            }
+        }
+    }
+
+    @Benchmark
+    public void readCatalog(Blackhole blackhole) throws IOException {
+        try (CatalogReader reader = new CatalogReader(new ByteArrayInputStream(catalog))) {
+            Dish dish;
+            while ((dish = reader.read()) != null) {
+                blackhole.consume(dish);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] writeCatalog() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(catalog != null ? catalog.length : 1024);
+        try (CatalogWriter writer = new CatalogWriter(out)) {
+            for (Dish dish : dishes) {
+                writer.write(dish);
+            }
+        }
+        return out.toByteArray();
+    }
+}
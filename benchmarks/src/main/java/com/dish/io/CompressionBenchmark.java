@@ -0,0 +1,79 @@
+package com.dish.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dish.model.Dish;
+import com.dish.model.SampleDishes;
+
+/**
+ * Compressing and decompressing a 10k-dish TXT export (about 2.5 MB) in memory, one whole file per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"GZIP", "BLOCKS"})
+    public Compression compression;
+
+    private byte[] text;
+    private byte[] compressed;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream textBytes = new ByteArrayOutputStream();
+        try (TextDishWriter writer = new TextDishWriter(textBytes)) {
+            for (Dish dish : SampleDishes.create(10_000, new Random(42))) {
+                writer.write(dish);
+            }
+        }
+        text = textBytes.toByteArray();
+        compressed = compress();
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(text.length / 2);
+        try (OutputStream compressor = compression.compress(out)) {
+            // Written in the same 64 KB pieces the TXT writer hands down
+            for (int offset = 0; offset < text.length; offset += buffer.length) {
+                compressor.write(text, offset, Math.min(buffer.length, text.length - offset));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public long decompress() throws IOException {
+        long total = 0;
+        try (InputStream in = compression.decompress(new ByteArrayInputStream(compressed))) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                total += n;
+            }
+        }
+        return total;
+    }
+}
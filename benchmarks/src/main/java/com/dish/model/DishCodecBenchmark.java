@@ -0,0 +1,53 @@
+package com.dish.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Line format/parse throughput of the TXT import/export format, one dish per operation.
+ * The inputs cycle through a pool of varied dishes so the JIT can't specialise on a single string.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DishCodecBenchmark {
+
+    private static final int POOL_SIZE = 1024; // Power of two, so the cursor wraps with a mask
+
+    private Dish[] dishes;
+    private String[] lines;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        dishes = SampleDishes.create(POOL_SIZE, new Random(42));
+        lines = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            lines[i] = dishes[i].toFileString();
+        }
+    }
+
+    @Benchmark
+    public String toFileString() {
+        return dishes[cursor++ & (POOL_SIZE - 1)].toFileString();
+    }
+
+    @Benchmark
+    public Dish fromFileString() {
+        return Dish.fromFileString(lines[cursor++ & (POOL_SIZE - 1)]);
+    }
+}
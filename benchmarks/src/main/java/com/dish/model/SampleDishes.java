@@ -0,0 +1,41 @@
+package com.dish.model;
+
+import java.util.Random;
+
+/**
+ * Deterministic, realistically sized dishes for the benchmarks: short names, a handful of types,
+ * a comma-separated ingredient list and a sentence or two of introduction.
+ */
+public class SampleDishes {
+
+    private static final String[] TYPES = {"Sichuan", "Cantonese", "Hunan", "Shandong", "Jiangsu", "Zhejiang", "Fujian", "Anhui"};
+    private static final String[] WORDS = {"pork", "tofu", "chilli", "garlic", "ginger", "scallion", "soy", "rice",
+            "noodle", "duck", "chicken", "beef", "mushroom", "pepper", "sesame", "vinegar", "shrimp", "egg"};
+
+    private SampleDishes() {}
+
+    public static Dish[] create(int count, Random random) {
+        Dish[] dishes = new Dish[count];
+        for (int i = 0; i < count; i++) {
+            dishes[i] = new Dish(i + 1,
+                    words(random, 2 + random.nextInt(2), " "),
+                    TYPES[random.nextInt(TYPES.length)],
+                    Math.round(random.nextDouble() * 20000) / 100.0,
+                    words(random, 4 + random.nextInt(5), ", "),
+                    words(random, 12 + random.nextInt(20), " "),
+                    "/home/user/photos/dish_" + (i + 1) + ".jpg");
+        }
+        return dishes;
+    }
+
+    private static String words(Random random, int count, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
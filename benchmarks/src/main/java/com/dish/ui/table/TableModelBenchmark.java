@@ -0,0 +1,153 @@
+package com.dish.ui.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.dish.dao.AsyncDishDAO;
+import com.dish.dao.DaoExecutor;
+import com.dish.dao.DishDAO;
+import com.dish.image.ImageDecodeService;
+import com.dish.model.Dish;
+import com.dish.model.SampleDishes;
+
+/**
+ * What {@code refreshTableData} costs on the client side, against an in-memory DAO so the database is out of the picture.
+ * <ul>
+ * <li>{@code reloadAndFill}: reload the model, then load and read every cell of the first {@code rows} rows,
+ * the way the table does when it is first shown. Includes the hops to the DAO threads and back to the EDT.</li>
+ * <li>{@code readScreenful}: steady-state cost of the table painting one screen (20 rows x all columns)
+ * from pages that are already cached.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableModelBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int SCREEN_ROWS = 20;
+    private static final int TABLE_SIZE = 10_000;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private AsyncDishDAO dishDAO;
+    private PagedDishTableModel model;
+    private volatile CountDownLatch modelEvent;
+    private int screenStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Dish[] dishes = SampleDishes.create(TABLE_SIZE, new Random(42));
+        for (Dish dish : dishes) {
+            dish.setPhotoPath(""); // Photo decoding has its own benchmark
+        }
+        dishDAO = new AsyncDishDAO(new InMemoryDishDAO(dishes), new DaoExecutor(16, 60_000));
+        model = fill(value -> { });
+    }
+
+    private PagedDishTableModel newModel() {
+        PagedDishTableModel created = new PagedDishTableModel(dishDAO, ImageDecodeService.getInstance(), 50, PAGE_SIZE, 20);
+        created.addTableModelListener(e -> {
+            CountDownLatch latch = modelEvent;
+            if (latch != null) {
+                latch.countDown();
+            }
+        });
+        return created;
+    }
+
+    @Benchmark
+    public void reloadAndFill(Blackhole blackhole) throws Exception {
+        model = fill(blackhole::consume);
+    }
+
+    private PagedDishTableModel fill(Consumer<Object> sink) throws Exception {
+        PagedDishTableModel fresh = newModel();
+        onEdtAndWaitForEvent(fresh::reload);
+        for (int page = 0; page * PAGE_SIZE < rows; page++) {
+            int firstRow = page * PAGE_SIZE;
+            onEdtAndWaitForEvent(() -> fresh.getValueAt(firstRow, PagedDishTableModel.NAME_COLUMN));
+        }
+        SwingUtilities.invokeAndWait(() -> readCells(fresh, 0, rows, sink));
+        return fresh;
+    }
+
+    // The model is only touched from the benchmark thread here; with no events in flight that is safe
+    @Benchmark
+    public void readScreenful(Blackhole blackhole) {
+        readCells(model, screenStart, SCREEN_ROWS, blackhole::consume);
+        screenStart = (screenStart + SCREEN_ROWS) % (rows - SCREEN_ROWS + 1);
+    }
+
+    private static void readCells(PagedDishTableModel model, int firstRow, int count, Consumer<Object> sink) {
+        int columns = model.getColumnCount();
+        for (int row = firstRow; row < firstRow + count; row++) {
+            for (int column = 0; column < columns; column++) {
+                sink.accept(model.getValueAt(row, column));
+            }
+        }
+    }
+
+    private void onEdtAndWaitForEvent(Runnable action) throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        modelEvent = latch;
+        SwingUtilities.invokeLater(action);
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Table model did not respond");
+        }
+        modelEvent = null;
+    }
+
+    private static class InMemoryDishDAO extends DishDAO {
+        private final Dish[] dishes; // In id order, ids 1..n
+
+        InMemoryDishDAO(Dish[] dishes) {
+            this.dishes = dishes;
+        }
+
+        @Override
+        public int countDishes() {
+            return dishes.length;
+        }
+
+        @Override
+        public List<Dish> getDishesAfter(int lastId, int limit) {
+            int from = Math.min(Math.max(lastId, 0), dishes.length);
+            List<Dish> page = new ArrayList<>(limit);
+            for (Dish dish : Arrays.copyOfRange(dishes, from, Math.min(from + limit, dishes.length))) {
+                page.add(new Dish(dish)); // The real DAO hands out fresh objects too
+            }
+            return page;
+        }
+
+        @Override
+        public int getIdAtOffset(int offset) {
+            return offset < dishes.length ? dishes[offset].getId() : -1;
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.dish;
 
 import javax.swing.SwingUtilities;
 
+import com.dish.ui.EdtWatchdog;
 import com.dish.ui.LoginView;
 import com.formdev.flatlaf.FlatLightLaf;
 
 public class App {
     public static void main(String[] args) {
         FlatLightLaf.setup();
+        EdtWatchdog.install();
 
         SwingUtilities.invokeLater(() -> {
             LoginView loginFrame = new LoginView();
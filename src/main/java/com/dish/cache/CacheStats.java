@@ -0,0 +1,40 @@
+package com.dish.cache;
+
+/**
+ * Snapshot of a cache's counters.
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long size;
+    private final long capacity;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount, long size, long capacity) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public long getEvictionCount() { return evictionCount; }
+    public long getExpirationCount() { return expirationCount; }
+    public long getSize() { return size; }
+    public long getCapacity() { return capacity; }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats { hits = %d, misses = %d, hitRate = %.1f%%, evictions = %d, expirations = %d, size = %d/%d }",
+                hitCount, missCount, getHitRate() * 100, evictionCount, expirationCount, size, capacity);
+    }
+}
@@ -0,0 +1,85 @@
+package com.dish.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, size-bounded LRU cache with an optional time-to-live and hit/miss/eviction counters.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // ttlMillis <= 0 means entries never expire and only leave the cache by eviction or invalidation
+    public LruCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1, was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (ttlMillis > 0 && System.currentTimeMillis() - entry.storedAt > ttlMillis) {
+            map.remove(key);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.currentTimeMillis()));
+    }
+
+    public synchronized void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), size(), maxEntries);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
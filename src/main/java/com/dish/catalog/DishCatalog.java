@@ -0,0 +1,329 @@
+package com.dish.catalog;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import com.dish.dao.DishChangeListener;
+import com.dish.dao.DishDAO;
+import com.dish.model.Dish;
+
+/**
+ * The whole dish table held in memory as a struct of arrays, ordered by id.
+ * <p>
+ * Ids and prices are primitive arrays, types are codes into a shared {@link StringDictionary}, and the long
+ * ingredients and introduction texts are UTF-8 in one byte array each (see {@link Utf8Column}). A dish
+ * costs a few dozen bytes plus its text, against several hundred as a {@link Dish} with its Strings, so
+ * large catalogs fit on modest workstations. Dishes are read through {@link DishView} flyweights.
+ * <p>
+ * A dish's row is its position in id order. That matches its model row in the dish table only while both hold
+ * the same dishes, so anything applied to the table goes by dish id. Register the catalog with
+ * {@link DishDAO#addChangeListener} to keep it in step with successful writes.
+ */
+public class DishCatalog implements DishChangeListener {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary types = new StringDictionary();
+    private int size = 0;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] typeCodes = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private String[] photoPaths = new String[INITIAL_CAPACITY];
+    private final Utf8Column ingredients = new Utf8Column(INITIAL_CAPACITY);
+    private final Utf8Column introductions = new Utf8Column(INITIAL_CAPACITY);
+    private volatile boolean ready = false;
+    // Bumped by every change, so a facet snapshot knows when it is stale
+    private long version = 0;
+    private volatile FacetIndex facets = null;
+    // Ids written while a load streams the table; the streamed rows for them are stale and get skipped
+    private Set<Integer> changedDuringLoad = null;
+
+    /**
+     * Fills the catalog from one streaming pass over the table. The stream is a snapshot, so writes that
+     * happen meanwhile are applied as they arrive and the stream's older copies of those dishes are ignored.
+     */
+    public void load(DishDAO dishDAO) {
+        Consumer<Dish> loader = beginLoad();
+        boolean complete = false;
+        try {
+            complete = dishDAO.streamAllDishes(loader) >= 0;
+        } finally {
+            finishLoad(complete);
+        }
+    }
+
+    /**
+     * Starts a load fed by the caller, e.g. from a stream shared with the search index. Every streamed dish goes
+     * to the returned consumer; {@link #finishLoad} must follow, also when the stream fails.
+     */
+    public Consumer<Dish> beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return this::putStreamed;
+    }
+
+    public void finishLoad(boolean complete) {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (complete) {
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds the dish, or replaces the stored one with the same id. Dishes streamed in id order are appended.
+     */
+    public void put(Dish dish) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(dish.getId());
+            }
+            putLocked(dish);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putStreamed(Dish dish) {
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringLoad.contains(dish.getId())) {
+                putLocked(dish);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(Dish dish) {
+        int row = Arrays.binarySearch(ids, 0, size, dish.getId());
+        if (row < 0) {
+            row = -row - 1;
+            insertRow(row);
+            ids[row] = dish.getId();
+        }
+        names[row] = dish.getName();
+        typeCodes[row] = types.encode(dish.getType());
+        prices[row] = dish.getPrice();
+        photoPaths[row] = dish.getPhotoPath();
+        ingredients.set(row, dish.getIngredients());
+        introductions.set(row, dish.getIntroduction());
+        version++;
+        ingredients.compactIfWasteful(size);
+        introductions.compactIfWasteful(size);
+    }
+
+    public void remove(int dishId) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(dishId);
+            }
+            int row = Arrays.binarySearch(ids, 0, size, dishId);
+            if (row < 0) {
+                return;
+            }
+            int moved = size - row - 1;
+            System.arraycopy(ids, row + 1, ids, row, moved);
+            System.arraycopy(names, row + 1, names, row, moved);
+            System.arraycopy(typeCodes, row + 1, typeCodes, row, moved);
+            System.arraycopy(prices, row + 1, prices, row, moved);
+            System.arraycopy(photoPaths, row + 1, photoPaths, row, moved);
+            ingredients.removeRow(row, size);
+            introductions.removeRow(row, size);
+            size--;
+            version++;
+            names[size] = null;
+            photoPaths[size] = null;
+            ingredients.compactIfWasteful(size);
+            introductions.compactIfWasteful(size);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insertRow(int row) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            photoPaths = Arrays.copyOf(photoPaths, capacity);
+            ingredients.ensureRowCapacity(capacity);
+            introductions.ensureRowCapacity(capacity);
+        }
+        int moved = size - row;
+        System.arraycopy(ids, row, ids, row + 1, moved);
+        System.arraycopy(names, row, names, row + 1, moved);
+        System.arraycopy(typeCodes, row, typeCodes, row + 1, moved);
+        System.arraycopy(prices, row, prices, row + 1, moved);
+        System.arraycopy(photoPaths, row, photoPaths, row + 1, moved);
+        ingredients.insertRow(row, size);
+        introductions.insertRow(row, size);
+        size++;
+    }
+
+    // --- DishChangeListener ---
+
+    @Override
+    public void dishAdded(Dish dish) {
+        put(dish);
+    }
+
+    @Override
+    public void dishUpdated(Dish dish) {
+        put(dish);
+    }
+
+    @Override
+    public void dishDeleted(int dishId) {
+        remove(dishId);
+    }
+
+    // --- Reads ---
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The row of the dish in id order, or -1 if it is not in the catalog
+    public int rowOf(int dishId) {
+        lock.readLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, dishId);
+            return row >= 0 ? row : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A view of the dish at {@code row}. The view follows the dish by id, so it stays valid when rows shift.
+     */
+    public DishView view(int row) {
+        lock.readLock().lock();
+        try {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+            }
+            return new DishView(this, ids[row], row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A view of the dish with this id, or null if it is not in the catalog
+    public DishView viewById(int dishId) {
+        int row = rowOf(dishId);
+        return row < 0 ? null : new DishView(this, dishId, row);
+    }
+
+    /**
+     * Type and price facets over the current rows. Built on first use after a change, which costs one
+     * sort of the prices; between changes every call returns the same snapshot.
+     */
+    public FacetIndex getFacets() {
+        lock.readLock().lock();
+        try {
+            FacetIndex current = facets;
+            if (current == null || current.getVersion() != version) {
+                current = new FacetIndex(version, size, ids, types.values(), typeCodes, prices);
+                facets = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every distinct type seen so far, in order of first appearance
+    public List<String> getTypes() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(types.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap held by the catalog, strings shared through the dictionary counted once.
+     */
+    public long estimateRetainedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (4 + 4 + 8 + 4 + 4) + ingredients.retainedBytes() + introductions.retainedBytes();
+            for (int row = 0; row < size; row++) {
+                bytes += stringBytes(names[row]) + stringBytes(photoPaths[row]);
+            }
+            for (String type : types.values()) {
+                bytes += stringBytes(type);
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Object header, hash and coder fields, plus the backing array
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 24 + 16 + s.length() * (s.chars().allMatch(c -> c < 256) ? 1L : 2L);
+    }
+
+    // --- Flyweight access, used by DishView ---
+
+    <T> T readRow(DishView view, IntFunction<T> reader, T missing) {
+        lock.readLock().lock();
+        try {
+            int row = view.getRowHint();
+            if (row >= size || ids[row] != view.getId()) {
+                row = Arrays.binarySearch(ids, 0, size, view.getId());
+                if (row < 0) {
+                    return missing;
+                }
+                view.setRowHint(row);
+            }
+            return reader.apply(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    String nameAt(int row) { return names[row]; }
+    String typeAt(int row) { return types.decode(typeCodes[row]); }
+    double priceAt(int row) { return prices[row]; }
+    String ingredientsAt(int row) { return ingredients.get(row); }
+    String introductionAt(int row) { return introductions.get(row); }
+    String photoPathAt(int row) { return photoPaths[row]; }
+
+    Dish dishAt(int row) {
+        return new Dish(ids[row], names[row], typeAt(row), prices[row],
+                ingredients.get(row), introductions.get(row), photoPaths[row]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.dish.catalog;
+
+import com.dish.model.Dish;
+
+/**
+ * A dish read through a {@link DishCatalog} instead of copied out of it: the view holds only the catalog
+ * and the id, and every getter reads the catalog's columns. Text columns are decoded on each call, so
+ * callers that need a field repeatedly should keep the returned value, or take a {@link #toDish()} copy.
+ * <p>
+ * Once the dish is deleted from the catalog, {@link #exists()} is false and the getters return null or 0.
+ */
+public final class DishView {
+
+    private final DishCatalog catalog;
+    private final int id;
+    // Where the dish was last seen; rows shift on inserts and deletes, so it is checked before use
+    private int rowHint;
+
+    DishView(DishCatalog catalog, int id, int rowHint) {
+        this.catalog = catalog;
+        this.id = id;
+        this.rowHint = rowHint;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean exists() {
+        return catalog.readRow(this, row -> true, false);
+    }
+
+    public String getName() { return catalog.readRow(this, catalog::nameAt, null); }
+    public String getType() { return catalog.readRow(this, catalog::typeAt, null); }
+    public double getPrice() { return catalog.readRow(this, catalog::priceAt, 0.0); }
+    public String getIngredients() { return catalog.readRow(this, catalog::ingredientsAt, null); }
+    public String getIntroduction() { return catalog.readRow(this, catalog::introductionAt, null); }
+    public String getPhotoPath() { return catalog.readRow(this, catalog::photoPathAt, null); }
+
+    /**
+     * A standalone copy of the dish, or null if it is no longer in the catalog.
+     */
+    public Dish toDish() {
+        return catalog.readRow(this, catalog::dishAt, null);
+    }
+
+    int getRowHint() {
+        return rowHint;
+    }
+
+    void setRowHint(int rowHint) {
+        this.rowHint = rowHint;
+    }
+
+    @Override
+    public String toString() {
+        return "DishView { id = " + id + ", name = '" + getName() + "' }";
+    }
+}
@@ -0,0 +1,187 @@
+package com.dish.catalog;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Facets over a snapshot of a {@link DishCatalog}: one row bitmap per type, and the rows sorted by price
+ * so a price range is two binary searches. Rows are positions in id order within this snapshot; they only line up
+ * with the dish table's model rows while both hold the same dishes, so {@link #idsOf} turns results into dish ids.
+ * <p>
+ * Immutable; {@link DishCatalog#getFacets()} builds a new one after the catalog has changed.
+ */
+public class FacetIndex {
+
+    private final long version;
+    private final int rowCount;
+    private final int[] ids;
+    private final List<String> types;
+    private final BitSet[] rowsByType;
+    private final int[] rowsByPrice;
+    private final double[] sortedPrices;
+
+    FacetIndex(long version, int rowCount, int[] ids, List<String> types, int[] typeCodes, double[] prices) {
+        this.version = version;
+        this.rowCount = rowCount;
+        this.ids = Arrays.copyOf(ids, rowCount);
+        this.types = List.copyOf(types);
+        this.rowsByType = new BitSet[types.size()];
+        for (int code = 0; code < rowsByType.length; code++) {
+            rowsByType[code] = new BitSet(rowCount);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (typeCodes[row] != StringDictionary.NULL_CODE) {
+                rowsByType[typeCodes[row]].set(row);
+            }
+        }
+        this.rowsByPrice = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            rowsByPrice[row] = row;
+        }
+        sortRowsByPrice(rowsByPrice, prices);
+        this.sortedPrices = new double[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            sortedPrices[i] = prices[rowsByPrice[i]];
+        }
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    // Types that at least one dish has had, in order of first appearance; some may have no rows left
+    public List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * The ids of the dishes in {@code rows}, ascending.
+     */
+    public int[] idsOf(BitSet rows) {
+        return rows.stream().filter(row -> row < rowCount).map(row -> ids[row]).toArray();
+    }
+
+    /**
+     * The rows of the given dish ids; ids that are not in this snapshot are left out.
+     */
+    public BitSet rowsOf(int[] dishIds) {
+        BitSet rows = new BitSet(rowCount);
+        for (int id : dishIds) {
+            int row = Arrays.binarySearch(ids, id);
+            if (row >= 0) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Rows of dishes with this type. The bitmap is a copy the caller may modify.
+     */
+    public BitSet rowsOfType(String type) {
+        int code = types.indexOf(type);
+        return code < 0 ? new BitSet() : (BitSet) rowsByType[code].clone();
+    }
+
+    /**
+     * Rows with {@code min <= price < max}; use {@code Double.POSITIVE_INFINITY} for an open upper end.
+     */
+    public BitSet rowsInPriceRange(double min, double max) {
+        BitSet rows = new BitSet(rowCount);
+        for (int i = firstAtLeast(min), end = firstAtLeast(max); i < end; i++) {
+            rows.set(rowsByPrice[i]);
+        }
+        return rows;
+    }
+
+    /**
+     * How many dishes of this type are among {@code within}, or among all rows if it is null.
+     */
+    public int countOfType(String type, BitSet within) {
+        int code = types.indexOf(type);
+        if (code < 0) {
+            return 0;
+        }
+        return within == null ? rowsByType[code].cardinality() : countIntersection(rowsByType[code], within);
+    }
+
+    /**
+     * How many dishes with {@code min <= price < max} are among {@code within}, or among all rows if it is null.
+     */
+    public int countInPriceRange(double min, double max, BitSet within) {
+        int start = firstAtLeast(min);
+        int end = firstAtLeast(max);
+        if (within == null) {
+            return end - start;
+        }
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (within.get(rowsByPrice[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countIntersection(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    // Position of the first price >= value in sortedPrices
+    private int firstAtLeast(double value) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Merge sort of row numbers by price, stable so equal prices stay in id order
+    private static void sortRowsByPrice(int[] rows, double[] prices) {
+        int[] buffer = new int[rows.length];
+        int[] from = rows;
+        int[] to = buffer;
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int left = 0; left < rows.length; left += 2 * width) {
+                int mid = Math.min(left + width, rows.length);
+                int right = Math.min(left + 2 * width, rows.length);
+                int i = left;
+                int j = mid;
+                int k = left;
+                while (i < mid && j < right) {
+                    to[k++] = prices[from[j]] < prices[from[i]] ? from[j++] : from[i++];
+                }
+                while (i < mid) {
+                    to[k++] = from[i++];
+                }
+                while (j < right) {
+                    to[k++] = from[j++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != rows) {
+            System.arraycopy(from, 0, rows, 0, rows.length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FacetIndex { rows = " + rowCount + ", types = " + types.size() + " }";
+    }
+}
@@ -0,0 +1,50 @@
+package com.dish.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct string to a small int code, so a column that repeats a handful of values
+ * stores one int per row and one copy of each value. Codes are never reused. Not thread-safe.
+ */
+final class StringDictionary {
+
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    // NULL_CODE if the value was never encoded
+    int codeOf(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL_CODE : code;
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    List<String> values() {
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,107 @@
+package com.dish.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A text column kept as UTF-8 in one shared byte array, addressed by per-row offset and length.
+ * Long, mostly-ASCII text such as ingredients takes about half the bytes of a String and no object per row.
+ * Updated or deleted text leaves garbage behind, which is compacted once it makes up half the array.
+ * Not thread-safe.
+ */
+final class Utf8Column {
+
+    private static final int NULL_LENGTH = -1;
+    private static final int MIN_COMPACT_BYTES = 1 << 20;
+
+    private byte[] data = new byte[4096];
+    private int used = 0;
+    private int garbage = 0;
+    private int[] offsets;
+    private int[] lengths;
+
+    Utf8Column(int capacity) {
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+    }
+
+    String get(int row) {
+        int length = lengths[row];
+        return length == NULL_LENGTH ? null : new String(data, offsets[row], length, StandardCharsets.UTF_8);
+    }
+
+    // Bytes of the row's text, without decoding it
+    int byteLength(int row) {
+        return Math.max(0, lengths[row]);
+    }
+
+    void set(int row, String value) {
+        garbage += byteLength(row);
+        if (value == null) {
+            offsets[row] = 0;
+            lengths[row] = NULL_LENGTH;
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureDataCapacity(used + bytes.length);
+        System.arraycopy(bytes, 0, data, used, bytes.length);
+        offsets[row] = used;
+        lengths[row] = bytes.length;
+        used += bytes.length;
+    }
+
+    // --- Row bookkeeping, mirrored from the catalog's other columns ---
+
+    void ensureRowCapacity(int capacity) {
+        if (capacity > offsets.length) {
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+    }
+
+    // Opens a gap at row, moving rows [row, size) up by one; the gap holds null text
+    void insertRow(int row, int size) {
+        System.arraycopy(offsets, row, offsets, row + 1, size - row);
+        System.arraycopy(lengths, row, lengths, row + 1, size - row);
+        offsets[row] = 0;
+        lengths[row] = NULL_LENGTH;
+    }
+
+    void removeRow(int row, int size) {
+        garbage += byteLength(row);
+        System.arraycopy(offsets, row + 1, offsets, row, size - row - 1);
+        System.arraycopy(lengths, row + 1, lengths, row, size - row - 1);
+    }
+
+    void compactIfWasteful(int size) {
+        if (garbage < MIN_COMPACT_BYTES || garbage < used / 2) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(4096, used - garbage)];
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            int length = lengths[row];
+            if (length > 0) {
+                System.arraycopy(data, offsets[row], compacted, position, length);
+                offsets[row] = position;
+                position += length;
+            }
+        }
+        data = compacted;
+        used = position;
+        garbage = 0;
+    }
+
+    long retainedBytes() {
+        return data.length + 8L * offsets.length;
+    }
+
+    private void ensureDataCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalStateException("Text column is full (2 GB)");
+        }
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, data.length * 2L)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.dish.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.dish.model.Dish;
+
+/**
+ * Non-blocking facade over {@link DishDAO}. Every call runs on a virtual thread via {@link DaoExecutor}.
+ * Swing code should consume the results with e.g. {@code whenCompleteAsync(..., SwingUtilities::invokeLater)}.
+ */
+public class AsyncDishDAO {
+
+    private final DishDAO dishDAO;
+    private final DaoExecutor executor;
+
+    public AsyncDishDAO(DishDAO dishDAO, DaoExecutor executor) {
+        this.dishDAO = dishDAO;
+        this.executor = executor;
+    }
+
+    // The blocking DAO underneath, for code that already runs off the EDT (import, export, indexing)
+    public DishDAO getDishDAO() {
+        return dishDAO;
+    }
+
+    public void addChangeListener(DishChangeListener listener) {
+        dishDAO.addChangeListener(listener);
+    }
+
+    public CompletableFuture<Dish> getDishById(int id) {
+        return executor.submit(() -> dishDAO.getDishById(id));
+    }
+
+    public CompletableFuture<List<Dish>> getDishesAfter(int lastId, int limit) {
+        return executor.submit(() -> dishDAO.getDishesAfter(lastId, limit));
+    }
+
+    public CompletableFuture<List<Dish>> getDishesByIds(int[] ids) {
+        return executor.submit(() -> dishDAO.getDishesByIds(ids));
+    }
+
+    public CompletableFuture<Integer> getIdAtOffset(int offset) {
+        return executor.submit(() -> dishDAO.getIdAtOffset(offset));
+    }
+
+    public CompletableFuture<Integer> countDishes() {
+        return executor.submit(dishDAO::countDishes);
+    }
+
+    public CompletableFuture<List<Dish>> searchDishes(String query, int limit, int offset) {
+        return executor.submit(() -> dishDAO.searchDishes(query, limit, offset));
+    }
+
+    public CompletableFuture<Integer> countSearchResults(String query) {
+        return executor.submit(() -> dishDAO.countSearchResults(query));
+    }
+
+    public CompletableFuture<Boolean> addDish(Dish dish) {
+        return executor.submit(() -> dishDAO.addDish(dish));
+    }
+
+    public CompletableFuture<BatchInsertResult> addDishes(Iterable<Dish> dishes, int batchSize) {
+        return executor.submit(() -> dishDAO.addDishes(dishes, batchSize));
+    }
+
+    public CompletableFuture<Boolean> updateDish(Dish dish) {
+        return executor.submit(() -> dishDAO.updateDish(dish));
+    }
+
+    public CompletableFuture<Boolean> deleteDish(int dishId) {
+        return executor.submit(() -> dishDAO.deleteDish(dishId));
+    }
+}
@@ -0,0 +1,21 @@
+package com.dish.dao;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking facade over {@link UserDAO}, see {@link AsyncDishDAO}.
+ */
+public class AsyncUserDAO {
+
+    private final UserDAO userDAO;
+    private final DaoExecutor executor;
+
+    public AsyncUserDAO(UserDAO userDAO, DaoExecutor executor) {
+        this.userDAO = userDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Boolean> validateUser(String username, String password) {
+        return executor.submit(() -> userDAO.validateUser(username, password));
+    }
+}
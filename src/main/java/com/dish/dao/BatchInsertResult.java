@@ -0,0 +1,51 @@
+package com.dish.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.dish.model.Dish;
+
+/**
+ * Outcome of a bulk insert: the IDs generated for every stored row, plus the rows that could not be stored.
+ */
+public class BatchInsertResult {
+
+    private final List<Integer> generatedIds = new ArrayList<>();
+    private final List<RowFailure> failures = new ArrayList<>();
+
+    void addInserted(int id) {
+        generatedIds.add(id);
+    }
+
+    void addFailure(int rowIndex, Dish dish, String message) {
+        failures.add(new RowFailure(rowIndex, dish, message));
+    }
+
+    public int getInsertedCount() { return generatedIds.size(); }
+    public int getFailedCount() { return failures.size(); }
+    public List<Integer> getGeneratedIds() { return Collections.unmodifiableList(generatedIds); }
+    public List<RowFailure> getFailures() { return Collections.unmodifiableList(failures); }
+
+    @Override
+    public String toString() {
+        return "BatchInsertResult { inserted = " + getInsertedCount() + ", failed = " + getFailedCount() + " }";
+    }
+
+    public static class RowFailure {
+        private final int rowIndex;
+        private final Dish dish;
+        private final String message;
+
+        public RowFailure(int rowIndex, Dish dish, String message) {
+            this.rowIndex = rowIndex;
+            this.dish = dish;
+            this.message = message;
+        }
+
+        // Position of the row in the Iterable that was passed to addDishes or upsertDishes (0-based)
+        public int getRowIndex() { return rowIndex; }
+        public Dish getDish() { return dish; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dish.dao;
+
+import java.util.List;
+
+import com.dish.cache.CacheStats;
+import com.dish.cache.LruCache;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.model.Dish;
+
+/**
+ * DishDAO with a read-through entity cache in front of {@link #getDishById(int)}.
+ * <p>
+ * Dishes read through the page and search queries are cached as a side effect, so opening a dish
+ * that is visible in the table never goes back to the database. Successful writes update the
+ * cache (write-through) and deletes invalidate it. The cache holds private copies, so callers
+ * editing a returned Dish cannot corrupt it before the write succeeds.
+ * <p>
+ * A read that overlapped a write may have fetched the row from before it, so its result is only cached
+ * when no write was applied to the cache while it ran.
+ */
+public class CachingDishDAO extends DishDAO {
+
+    private final LruCache<Integer, Dish> cache;
+    // Bumped by every write applied to the cache; guarded by the cache's monitor, like the puts it orders
+    private long writeGeneration = 0;
+
+    public CachingDishDAO(int maxEntries, long ttlMillis) {
+        this.cache = new LruCache<>(maxEntries, ttlMillis);
+        MetricsRegistry.getInstance().gauge("DishCache.hitRate", () -> cache.getStats().getHitRate());
+        MetricsRegistry.getInstance().gauge("DishCache.size", () -> cache.getStats().getSize());
+        addChangeListener(new DishChangeListener() {
+            @Override
+            public void dishAdded(Dish dish) {
+                written(dish);
+            }
+
+            @Override
+            public void dishUpdated(Dish dish) {
+                written(dish);
+            }
+
+            @Override
+            public void dishDeleted(int dishId) {
+                synchronized (cache) {
+                    writeGeneration++;
+                    cache.invalidate(dishId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Dish getDishById(int id) {
+        Dish cached = cache.get(id);
+        if (cached != null) {
+            return new Dish(cached);
+        }
+        long generation = currentGeneration();
+        Dish dish = super.getDishById(id);
+        if (dish != null) {
+            remember(List.of(dish), generation);
+        }
+        return dish;
+    }
+
+    @Override
+    public List<Dish> getDishesAfter(int lastId, int limit) {
+        long generation = currentGeneration();
+        return remember(super.getDishesAfter(lastId, limit), generation);
+    }
+
+    @Override
+    public List<Dish> getDishesByIds(int[] ids) {
+        long generation = currentGeneration();
+        return remember(super.getDishesByIds(ids), generation);
+    }
+
+    @Override
+    public List<Dish> searchDishes(String query, int limit, int offset) {
+        long generation = currentGeneration();
+        return remember(super.searchDishes(query, limit, offset), generation);
+    }
+
+    private long currentGeneration() {
+        synchronized (cache) {
+            return writeGeneration;
+        }
+    }
+
+    private void written(Dish dish) {
+        synchronized (cache) {
+            writeGeneration++;
+            cache.put(dish.getId(), new Dish(dish));
+        }
+    }
+
+    // Skipped if a write reached the cache since the read started; its rows could be older than the cached ones
+    private List<Dish> remember(List<Dish> dishes, long generation) {
+        synchronized (cache) {
+            if (generation == writeGeneration) {
+                for (Dish dish : dishes) {
+                    cache.put(dish.getId(), new Dish(dish));
+                }
+            }
+        }
+        return dishes;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -0,0 +1,72 @@
+package com.dish.dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking DAO calls on virtual threads and hands back CompletableFutures.
+ * <p>
+ * A semaphore caps how many calls run against the database at once (there is no point in having more
+ * in flight than the connection pool can serve), and every future fails with a TimeoutException if
+ * the call takes longer than the configured timeout.
+ */
+public class DaoExecutor {
+
+    private static DaoExecutor instance = null;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public DaoExecutor(int maxConcurrency, long timeoutMillis) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // Limits can be overridden with -Ddish.async.maxConcurrency and -Ddish.async.timeoutMs
+    public static synchronized DaoExecutor getInstance() {
+        if (instance == null) {
+            instance = new DaoExecutor(Integer.getInteger("dish.async.maxConcurrency", 10),
+                    Long.getLong("dish.async.timeoutMs", 15_000));
+        }
+        return instance;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A message for showing a failed future to the user: unwraps the CompletionException
+     * and spells out timeouts, whose own message is empty.
+     */
+    public static String describeFailure(Throwable error) {
+        Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "the database did not answer in time";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,13 @@
+package com.dish.dao;
+
+import com.dish.model.Dish;
+
+/**
+ * Notified by {@link DishDAO} after a write has succeeded.
+ * Callbacks run on whichever thread performed the write, which is not necessarily the EDT.
+ */
+public interface DishChangeListener {
+    void dishAdded(Dish dish);
+    void dishUpdated(Dish dish);
+    void dishDeleted(int dishId);
+}
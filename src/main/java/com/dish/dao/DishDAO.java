@@ -1,36 +1,320 @@
 package com.dish.dao;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import com.dish.database.DatabaseConnection;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
 import com.dish.model.Dish;
 
 public class DishDAO {
 
+    private static final String INSERT_SQL = "INSERT INTO dishes(name, type, price, ingredients, introduction, photo_path, content_hash) VALUES(?, ?, ?, ?, ?, ?, ?)";
+    // VALUES(col) instead of the 8.0.19+ row alias, so this also runs on older MySQL servers and MariaDB
+    private static final String UPSERT_SQL = "INSERT INTO dishes(name, type, price, ingredients, introduction, photo_path, content_hash, id) VALUES(?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), type = VALUES(type), price = VALUES(price), ingredients = VALUES(ingredients), " +
+            "introduction = VALUES(introduction), photo_path = VALUES(photo_path), content_hash = VALUES(content_hash)";
+
+    // Wall time of each query, connection checkout included, published over JMX
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final Timer GET_ALL_DISHES_TIMER = METRICS.timer("DishDAO.getAllDishes");
+    private static final Timer STREAM_ALL_DISHES_TIMER = METRICS.timer("DishDAO.streamAllDishes");
+    private static final Timer GET_DISHES_AFTER_TIMER = METRICS.timer("DishDAO.getDishesAfter");
+    private static final Timer GET_ID_AT_OFFSET_TIMER = METRICS.timer("DishDAO.getIdAtOffset");
+    private static final Timer GET_DISHES_BY_IDS_TIMER = METRICS.timer("DishDAO.getDishesByIds");
+    private static final Timer SEARCH_DISHES_TIMER = METRICS.timer("DishDAO.searchDishes");
+    private static final Timer COUNT_SEARCH_RESULTS_TIMER = METRICS.timer("DishDAO.countSearchResults");
+    private static final Timer COUNT_DISHES_TIMER = METRICS.timer("DishDAO.countDishes");
+    private static final Timer GET_DISH_BY_ID_TIMER = METRICS.timer("DishDAO.getDishById");
+    private static final Timer ADD_DISH_TIMER = METRICS.timer("DishDAO.addDish");
+    private static final Timer ADD_DISHES_TIMER = METRICS.timer("DishDAO.addDishes");
+    private static final Timer UPSERT_DISHES_TIMER = METRICS.timer("DishDAO.upsertDishes");
+    private static final Timer UPDATE_DISH_TIMER = METRICS.timer("DishDAO.updateDish");
+    private static final Timer DELETE_DISH_TIMER = METRICS.timer("DishDAO.deleteDish");
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JRE is required to provide MD5", e);
+        }
+    });
+
+    private final List<DishChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    public void addChangeListener(DishChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(DishChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
     public List<Dish> getAllDishes() {
         List<Dish> dishes = new ArrayList<>();
         String sql = "SELECT * FROM dishes ORDER BY id";
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 dishes.add(extractDishFromResultSet(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            GET_ALL_DISHES_TIMER.recordSince(start);
         }
         return dishes;
     }
     
+    /**
+     * Streams every dish to {@code consumer} in id order without collecting them in a list.
+     * The driver fetches rows one at a time, so memory use stays flat regardless of table size.
+     * Returns the number of rows passed to the consumer, or -1 if the query failed.
+     * Exceptions thrown by the consumer propagate to the caller and stop the stream; the query is cancelled first,
+     * since closing a streaming result would otherwise read every remaining row off the wire.
+     */
+    public long streamAllDishes(Consumer<? super Dish> consumer) {
+        String sql = "SELECT * FROM dishes ORDER BY id";
+        long count = 0;
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Integer.MIN_VALUE is Connector/J's signal to stream rows instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    Dish dish = extractDishFromResultSet(rs);
+                    try {
+                        consumer.accept(dish);
+                    } catch (RuntimeException e) {
+                        cancelQuietly(stmt);
+                        throw e;
+                    }
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            STREAM_ALL_DISHES_TIMER.recordSince(start);
+        }
+        return count;
+    }
+
+    private static void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Keyset pagination: returns up to {@code limit} dishes whose id is greater than {@code lastId}, in id order.
+     * Unlike OFFSET paging this is an index range scan, so page 5000 costs the same as page 1.
+     */
+    public List<Dish> getDishesAfter(int lastId, int limit) {
+        List<Dish> dishes = new ArrayList<>(limit);
+        String sql = "SELECT * FROM dishes WHERE id > ? ORDER BY id LIMIT ?";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, lastId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    dishes.add(extractDishFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            GET_DISHES_AFTER_TIMER.recordSince(start);
+        }
+        return dishes;
+    }
+
+    /**
+     * Returns the dishes with the given ids, in id order, in one primary-key query. Ids that no longer exist
+     * are left out. This is how a table page over a locally filtered id list is read.
+     */
+    public List<Dish> getDishesByIds(int[] ids) {
+        List<Dish> dishes = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return dishes;
+        }
+        // Padded to a power of two, so pages of any length share a handful of prepared statements
+        int slots = Math.max(16, Integer.highestOneBit(ids.length - 1) << 1);
+        StringBuilder sql = new StringBuilder("SELECT * FROM dishes WHERE id IN (");
+        for (int i = 0; i < slots; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY id");
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < slots; i++) {
+                pstmt.setInt(i + 1, ids[Math.min(i, ids.length - 1)]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    dishes.add(extractDishFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            GET_DISHES_BY_IDS_TIMER.recordSince(start);
+        }
+        return dishes;
+    }
+
+    /**
+     * Returns the id of the dish at {@code offset} in id order, or -1 if there is none.
+     * Only the primary key is read, which lets a pager jump into the middle of the table
+     * and continue with {@link #getDishesAfter(int, int)} from there.
+     */
+    public int getIdAtOffset(int offset) {
+        String sql = "SELECT id FROM dishes ORDER BY id LIMIT ?, 1";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            GET_ID_AT_OFFSET_TIMER.recordSince(start);
+        }
+        return -1;
+    }
+
+    /**
+     * Full-text search over name, type, ingredients and introduction, best matches first.
+     * Every word of the query must match, and the last word also matches as a prefix so
+     * partially typed words still find results. Backed by the ft_dishes_text FULLTEXT index.
+     */
+    public List<Dish> searchDishes(String query, int limit, int offset) {
+        List<Dish> dishes = new ArrayList<>(limit);
+        String booleanQuery = toBooleanModeQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return dishes;
+        }
+        String sql = "SELECT *, MATCH(name, type, ingredients, introduction) AGAINST (? IN BOOLEAN MODE) AS relevance " +
+                     "FROM dishes WHERE MATCH(name, type, ingredients, introduction) AGAINST (? IN BOOLEAN MODE) " +
+                     "ORDER BY relevance DESC, id LIMIT ? OFFSET ?";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, booleanQuery);
+            pstmt.setString(2, booleanQuery);
+            pstmt.setInt(3, limit);
+            pstmt.setInt(4, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    dishes.add(extractDishFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            SEARCH_DISHES_TIMER.recordSince(start);
+        }
+        return dishes;
+    }
+
+    public int countSearchResults(String query) {
+        String booleanQuery = toBooleanModeQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return 0;
+        }
+        String sql = "SELECT COUNT(*) FROM dishes WHERE MATCH(name, type, ingredients, introduction) AGAINST (? IN BOOLEAN MODE)";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, booleanQuery);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            COUNT_SEARCH_RESULTS_TIMER.recordSince(start);
+        }
+        return 0;
+    }
+
+    // "beef noo" -> "+beef +noo*". Operator characters typed by the user are dropped, not interpreted.
+    private static String toBooleanModeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String[] words = query.replaceAll("[+\\-<>()~*\"@]", " ").trim().split("\\s+");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append('+').append(words[i]);
+            if (i == words.length - 1) {
+                sb.append('*');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the number of dishes, or -1 if the query failed, so an unreachable database is not mistaken for an empty one.
+     */
+    public int countDishes() {
+        String sql = "SELECT COUNT(*) FROM dishes";
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            COUNT_DISHES_TIMER.recordSince(start);
+        }
+        return 0;
+    }
+
     public Dish getDishById(int id) {
         String sql = "SELECT * FROM dishes WHERE id = ?";
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -42,22 +326,19 @@ public class DishDAO {
             }
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            GET_DISH_BY_ID_TIMER.recordSince(start);
         }
         return null;
     }
 
 
     public boolean addDish(Dish dish) {
-        String sql = "INSERT INTO dishes(name, type, price, ingredients, introduction, photo_path) VALUES(?, ?, ?, ?, ?, ?)";
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, dish.getName());
-            pstmt.setString(2, dish.getType());
-            pstmt.setDouble(3, dish.getPrice());
-            pstmt.setString(4, dish.getIngredients());
-            pstmt.setString(5, dish.getIntroduction());
-            pstmt.setString(6, dish.getPhotoPath());
+            bindDishColumns(pstmt, dish);
 
             int affectedRows = pstmt.executeUpdate();
 
@@ -68,47 +349,381 @@ public class DishDAO {
                         dish.setId(generatedKeys.getInt(1));
                     }
                 }
+                fireDishAdded(dish);
                 return true;
             }
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            ADD_DISH_TIMER.recordSince(start);
         }
         return false;
     }
 
+    /**
+     * Inserts many dishes using JDBC batching, committing once per chunk of {@code batchSize} rows.
+     * If a chunk fails as a whole it is rolled back and retried row by row, so one bad row
+     * only costs its own insert instead of the whole chunk.
+     */
+    public BatchInsertResult addDishes(Iterable<Dish> dishes, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, was " + batchSize);
+        }
+        BatchInsertResult result = new BatchInsertResult();
+        List<Dish> chunk = new ArrayList<>(batchSize);
+        int chunkStartIndex = 0;
+        int rowIndex = 0;
+
+        Iterator<Dish> remaining = dishes.iterator();
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
+            while (remaining.hasNext()) {
+                Dish dish = remaining.next();
+                chunk.add(dish);
+                rowIndex++;
+                if (chunk.size() == batchSize) {
+                    insertChunk(conn, pstmt, chunk, chunkStartIndex, result);
+                    chunk.clear();
+                    chunkStartIndex = rowIndex;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(conn, pstmt, chunk, chunkStartIndex, result);
+            }
+        } catch (SQLException e) {
+            // Only reached when the connection itself is unusable; the chunk in flight and every row not read yet
+            // count as failed, so inserted plus failed always adds up to the input
+            e.printStackTrace();
+            for (int i = 0; i < chunk.size(); i++) {
+                result.addFailure(chunkStartIndex + i, chunk.get(i), e.getMessage());
+            }
+            while (remaining.hasNext()) {
+                result.addFailure(rowIndex++, remaining.next(), e.getMessage());
+            }
+        } finally {
+            ADD_DISHES_TIMER.recordSince(start);
+        }
+        return result;
+    }
+
+    private void insertChunk(Connection conn, PreparedStatement pstmt, List<Dish> chunk,
+                             int chunkStartIndex, BatchInsertResult result) throws SQLException {
+        try {
+            for (Dish dish : chunk) {
+                bindDishColumns(pstmt, dish);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            int[] ids = new int[chunk.size()];
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                for (int i = 0; i < ids.length && generatedKeys.next(); i++) {
+                    ids[i] = generatedKeys.getInt(1);
+                }
+            }
+            conn.commit();
+            for (int i = 0; i < ids.length; i++) {
+                chunk.get(i).setId(ids[i]);
+                result.addInserted(ids[i]);
+                fireDishAdded(chunk.get(i));
+            }
+        } catch (SQLException batchError) {
+            conn.rollback();
+            pstmt.clearBatch();
+            insertChunkRowByRow(conn, pstmt, chunk, chunkStartIndex, result);
+        }
+    }
+
+    private void insertChunkRowByRow(Connection conn, PreparedStatement pstmt, List<Dish> chunk,
+                                     int chunkStartIndex, BatchInsertResult result) throws SQLException {
+        // MySQL only rolls back the failing statement, so the good rows of this chunk still share one commit.
+        // Row errors are recorded after it: if the commit fails, the caller counts the whole chunk as failed once.
+        int[] ids = new int[chunk.size()];
+        String[] errors = new String[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Dish dish = chunk.get(i);
+            try {
+                bindDishColumns(pstmt, dish);
+                pstmt.executeUpdate();
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    ids[i] = generatedKeys.next() ? generatedKeys.getInt(1) : -1;
+                }
+            } catch (SQLException rowError) {
+                ids[i] = -1;
+                errors[i] = rowError.getMessage();
+            }
+        }
+        conn.commit();
+        for (int i = 0; i < ids.length; i++) {
+            if (errors[i] != null) {
+                result.addFailure(chunkStartIndex + i, chunk.get(i), errors[i]);
+            } else if (ids[i] > 0) {
+                chunk.get(i).setId(ids[i]);
+                result.addInserted(ids[i]);
+                fireDishAdded(chunk.get(i));
+            }
+        }
+    }
+
+    /**
+     * Writes dishes under the ids they carry: a new id is inserted, an existing one is overwritten, so importing
+     * the same file twice leaves one copy of every dish. Rows without an id (0 or less) are rejected.
+     * <p>
+     * Each chunk of {@code batchSize} rows first reads the stored content hashes of its ids in one primary-key
+     * query. Rows whose hash matches are counted as unchanged and never sent, so re-importing an unchanged file
+     * costs only those reads. The rest go out as one batched INSERT ... ON DUPLICATE KEY UPDATE, with the same
+     * row-by-row retry as {@link #addDishes(Iterable, int)}.
+     */
+    public UpsertResult upsertDishes(Iterable<Dish> dishes, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, was " + batchSize);
+        }
+        UpsertResult result = new UpsertResult();
+        List<Dish> chunk = new ArrayList<>(batchSize);
+        int chunkStartIndex = 0;
+        int rowIndex = 0;
+
+        Iterator<Dish> remaining = dishes.iterator();
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            conn.setAutoCommit(false);
+            while (remaining.hasNext()) {
+                Dish dish = remaining.next();
+                chunk.add(dish);
+                rowIndex++;
+                if (chunk.size() == batchSize) {
+                    upsertChunk(conn, pstmt, chunk, chunkStartIndex, batchSize, result);
+                    chunk.clear();
+                    chunkStartIndex = rowIndex;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                upsertChunk(conn, pstmt, chunk, chunkStartIndex, batchSize, result);
+            }
+        } catch (SQLException e) {
+            // Only reached when the connection itself is unusable; the chunk in flight and the unread rows count as failed
+            e.printStackTrace();
+            for (int i = 0; i < chunk.size(); i++) {
+                result.addFailure(chunkStartIndex + i, chunk.get(i), e.getMessage());
+            }
+            while (remaining.hasNext()) {
+                result.addFailure(rowIndex++, remaining.next(), e.getMessage());
+            }
+        } finally {
+            UPSERT_DISHES_TIMER.recordSince(start);
+        }
+        return result;
+    }
+
+    private void upsertChunk(Connection conn, PreparedStatement pstmt, List<Dish> chunk, int chunkStartIndex,
+                             int batchSize, UpsertResult result) throws SQLException {
+        Map<Integer, byte[]> storedHashes = readContentHashes(conn, chunk, batchSize);
+        List<PendingWrite> writes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Dish dish = chunk.get(i);
+            if (dish.getId() <= 0) {
+                result.addFailure(chunkStartIndex + i, dish, "Dish has no id to match on");
+                continue;
+            }
+            byte[] hash = contentHash(dish);
+            boolean exists = storedHashes.containsKey(dish.getId());
+            // A repeated id later in the same chunk is compared against this row, not the stored one
+            byte[] stored = storedHashes.put(dish.getId(), hash);
+            if (exists && Arrays.equals(stored, hash)) {
+                result.addUnchanged(1);
+            } else {
+                writes.add(new PendingWrite(chunkStartIndex + i, dish, hash, exists));
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+        List<PendingWrite> written = writes;
+        try {
+            for (PendingWrite write : writes) {
+                bindUpsert(pstmt, write);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException batchError) {
+            conn.rollback();
+            pstmt.clearBatch();
+            written = new ArrayList<>(writes.size());
+            for (PendingWrite write : writes) {
+                try {
+                    bindUpsert(pstmt, write);
+                    pstmt.executeUpdate();
+                    written.add(write);
+                } catch (SQLException rowError) {
+                    result.addFailure(write.rowIndex, write.dish, rowError.getMessage());
+                }
+            }
+            conn.commit();
+        }
+        for (PendingWrite write : written) {
+            if (write.existed) {
+                result.addUpdated(1);
+                fireDishUpdated(write.dish);
+            } else {
+                result.addInserted(1);
+                fireDishAdded(write.dish);
+            }
+        }
+    }
+
+    // id -> stored content hash for the ids of the chunk that exist; the hash is null for rows never hashed
+    private Map<Integer, byte[]> readContentHashes(Connection conn, List<Dish> chunk, int batchSize) throws SQLException {
+        // Padded to a fixed number of parameters, so every chunk reuses one prepared statement
+        int slots = Math.max(batchSize, chunk.size());
+        StringBuilder sql = new StringBuilder("SELECT id, content_hash FROM dishes WHERE id IN (");
+        for (int i = 0; i < slots; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        Map<Integer, byte[]> hashes = new HashMap<>(chunk.size() * 2);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < slots; i++) {
+                pstmt.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).getId());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hashes.put(rs.getInt(1), rs.getBytes(2));
+                }
+            }
+        }
+        return hashes;
+    }
+
+    private void bindUpsert(PreparedStatement pstmt, PendingWrite write) throws SQLException {
+        bindDishColumns(pstmt, write.dish, write.hash);
+        pstmt.setInt(8, write.dish.getId());
+    }
+
+    private static class PendingWrite {
+        final int rowIndex;
+        final Dish dish;
+        final byte[] hash;
+        final boolean existed;
+
+        PendingWrite(int rowIndex, Dish dish, byte[] hash, boolean existed) {
+            this.rowIndex = rowIndex;
+            this.dish = dish;
+            this.hash = hash;
+            this.existed = existed;
+        }
+    }
+
     public boolean updateDish(Dish dish) {
-        String sql = "UPDATE dishes SET name = ?, type = ?, price = ?, ingredients = ?, introduction = ?, photo_path = ? WHERE id = ?";
+        String sql = "UPDATE dishes SET name = ?, type = ?, price = ?, ingredients = ?, introduction = ?, photo_path = ?, content_hash = ? WHERE id = ?";
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, dish.getName());
-            pstmt.setString(2, dish.getType());
-            pstmt.setDouble(3, dish.getPrice());
-            pstmt.setString(4, dish.getIngredients());
-            pstmt.setString(5, dish.getIntroduction());
-            pstmt.setString(6, dish.getPhotoPath());
-            pstmt.setInt(7, dish.getId());
+            bindDishColumns(pstmt, dish);
+            pstmt.setInt(8, dish.getId());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                fireDishUpdated(dish);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            UPDATE_DISH_TIMER.recordSince(start);
         }
         return false;
     }
 
     public boolean deleteDish(int dishId) {
         String sql = "DELETE FROM dishes WHERE id = ?";
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, dishId);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                fireDishDeleted(dishId);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
+        } finally {
+            DELETE_DISH_TIMER.recordSince(start);
         }
         return false;
     }
 
-    private Dish extractDishFromResultSet(ResultSet rs) throws SQLException {
+    // --- Change notification ---
+
+    private void fireDishAdded(Dish dish) {
+        for (DishChangeListener listener : changeListeners) {
+            listener.dishAdded(dish);
+        }
+    }
+
+    private void fireDishUpdated(Dish dish) {
+        for (DishChangeListener listener : changeListeners) {
+            listener.dishUpdated(dish);
+        }
+    }
+
+    private void fireDishDeleted(int dishId) {
+        for (DishChangeListener listener : changeListeners) {
+            listener.dishDeleted(dishId);
+        }
+    }
+
+    // Binds name, type, price, ingredients, introduction and photo_path to parameters 1-6 and their content hash to 7
+    private void bindDishColumns(PreparedStatement pstmt, Dish dish) throws SQLException {
+        bindDishColumns(pstmt, dish, contentHash(dish));
+    }
+
+    private void bindDishColumns(PreparedStatement pstmt, Dish dish, byte[] contentHash) throws SQLException {
+        pstmt.setString(1, dish.getName());
+        pstmt.setString(2, dish.getType());
+        pstmt.setDouble(3, dish.getPrice());
+        pstmt.setString(4, dish.getIngredients());
+        pstmt.setString(5, dish.getIntroduction());
+        pstmt.setString(6, dish.getPhotoPath());
+        pstmt.setBytes(7, contentHash);
+    }
+
+    /**
+     * 16-byte fingerprint of every stored column except the id. Every write path stores it, so a matching
+     * hash means the row already holds this content. Used for change detection only, not for security.
+     */
+    static byte[] contentHash(Dish dish) {
+        MessageDigest md5 = MD5.get();
+        digestString(md5, dish.getName());
+        digestString(md5, dish.getType());
+        digestLong(md5, Double.doubleToLongBits(dish.getPrice()));
+        digestString(md5, dish.getIngredients());
+        digestString(md5, dish.getIntroduction());
+        digestString(md5, dish.getPhotoPath());
+        return md5.digest();
+    }
+
+    // Length-prefixed, with -1 for null, so ("ab", "c") and ("a", "bc") hash differently
+    private static void digestString(MessageDigest md5, String value) {
+        if (value == null) {
+            digestLong(md5, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digestLong(md5, bytes.length);
+        md5.update(bytes);
+    }
+
+    private static void digestLong(MessageDigest md5, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            md5.update((byte) (value >>> shift));
+        }
+    }
+
+    // Package-private and static so the row-mapping benchmark can drive it with an in-memory ResultSet
+    static Dish extractDishFromResultSet(ResultSet rs) throws SQLException {
         return new Dish(
                 rs.getInt("id"),
                 rs.getString("name"),
@@ -0,0 +1,49 @@
+package com.dish.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.dish.dao.BatchInsertResult.RowFailure;
+import com.dish.model.Dish;
+
+/**
+ * Outcome of {@link DishDAO#upsertDishes}: how many rows were new, changed or already up to date,
+ * plus the rows that could not be stored.
+ */
+public class UpsertResult {
+
+    private int insertedCount = 0;
+    private int updatedCount = 0;
+    private int unchangedCount = 0;
+    private final List<RowFailure> failures = new ArrayList<>();
+
+    void addInserted(int count) {
+        insertedCount += count;
+    }
+
+    void addUpdated(int count) {
+        updatedCount += count;
+    }
+
+    void addUnchanged(int count) {
+        unchangedCount += count;
+    }
+
+    void addFailure(int rowIndex, Dish dish, String message) {
+        failures.add(new RowFailure(rowIndex, dish, message));
+    }
+
+    public int getInsertedCount() { return insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    // Rows whose stored content hash already matched, so nothing was written for them
+    public int getUnchangedCount() { return unchangedCount; }
+    public int getFailedCount() { return failures.size(); }
+    public List<RowFailure> getFailures() { return Collections.unmodifiableList(failures); }
+
+    @Override
+    public String toString() {
+        return "UpsertResult { inserted = " + insertedCount + ", updated = " + updatedCount +
+               ", unchanged = " + unchangedCount + ", failed = " + getFailedCount() + " }";
+    }
+}
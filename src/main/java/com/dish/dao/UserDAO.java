@@ -6,13 +6,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import com.dish.database.DatabaseConnection;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
 
 public class UserDAO {
+
+    private static final Timer VALIDATE_USER_TIMER = MetricsRegistry.getInstance().timer("UserDAO.validateUser");
+
     public boolean validateUser(String username, String password) {
         String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
 
         System.out.println("USER DAO: Executing query for user='" + username + "'");
 
+        long start = System.nanoTime();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
@@ -29,6 +35,8 @@ public class UserDAO {
             System.err.println("Database error during user validation: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            VALIDATE_USER_TIMER.recordSince(start);
         }
     }
 }
\ No newline at end of file
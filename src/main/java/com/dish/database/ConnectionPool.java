@@ -0,0 +1,306 @@
+package com.dish.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dish.cache.CacheStats;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Callers borrow with {@link #getConnection()} and give the connection back by calling close() on it,
+ * so the usual try-with-resources blocks in the DAOs keep working unchanged.
+ * <p>
+ * Each physical connection keeps a {@link StatementCache}, so a DAO preparing the same SQL on every call
+ * only pays for the prepare the first time it runs on that connection.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    // Most recently returned connections sit at the head, so borrowers get the "warmest" one
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, long validationIntervalMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictAndRefill, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Borrowing ---
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        waitingCount.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waitingCount.decrementAndGet();
+        }
+        if (!acquired) {
+            throw new SQLException("Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection ("
+                    + activeCount.get() + " active, " + maxSize + " max)");
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysicalConnection());
+            }
+            activeCount.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    // Validation on borrow: connections used very recently are trusted, older ones get a round trip
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsedAt < validationIntervalMillis) {
+                return true;
+            }
+            return pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalCount.incrementAndGet();
+        return physical;
+    }
+
+    // --- Returning ---
+
+    private void release(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            // Never hand the next borrower a half-finished transaction
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+            if (pooled.statements != null) {
+                pooled.statements.reclaimAll();
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalCount.decrementAndGet();
+        if (pooled.statements != null) {
+            pooled.statements.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Already broken, nothing else to do
+        }
+    }
+
+    // --- Idle eviction ---
+
+    private void evictAndRefill() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Oldest idle connections are at the tail of the deque
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && totalCount.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsedAt > idleTimeoutMillis && idleConnections.removeLastOccurrence(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        while (!closed && totalCount.get() < minSize) {
+            try {
+                PooledConnection pooled = new PooledConnection(openPhysicalConnection());
+                idleConnections.offerLast(pooled);
+            } catch (SQLException e) {
+                // The database may simply not be up yet, try again on the next run
+                break;
+            }
+        }
+    }
+
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // --- Statistics ---
+
+    public int getActiveCount() { return activeCount.get(); }
+    public int getIdleCount() { return idleConnections.size(); }
+    public int getWaitingCount() { return waitingCount.get(); }
+    public int getTotalCount() { return totalCount.get(); }
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+
+    public CacheStats getStatementCacheStats() {
+        return new CacheStats(statementCounters.hits.get(), statementCounters.misses.get(), statementCounters.evictions.get(),
+                0, statementCounters.cachedStatements.get(), (long) statementCacheSize * maxSize);
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool { active = " + getActiveCount() +
+               ", idle = " + getIdleCount() +
+               ", waiting = " + getWaitingCount() +
+               ", total = " + getTotalCount() +
+               ", max = " + maxSize +
+               ", statements = " + getStatementCacheStats() + " }";
+    }
+
+    // --- Pooled connection wrapper ---
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements; // null when statement caching is switched off
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCounters)
+                    : null;
+        }
+
+        // Each borrow gets its own proxy, so a stale reference can't close the connection a second time
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (pooled.statements != null && method.getName().equals("prepareStatement")) {
+                return pooled.statements.prepare((Connection) proxy, method, args);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,41 +1,100 @@
 package com.dish.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/dish-information-system";
+    // rewriteBatchedStatements lets the driver send a JDBC batch of inserts as one multi-row INSERT
+    private static final String URL = "jdbc:mysql://localhost:3306/dish-information-system?rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASSWORD = "mysql";
 
-    private static Connection connection = null;
+    // Pool settings, each one can be overridden with -Ddish.db.pool.<name>=<value>
+    private static final int POOL_MIN_SIZE = Integer.getInteger("dish.db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("dish.db.pool.maxSize", 10);
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("dish.db.pool.acquireTimeoutMs", 10_000);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("dish.db.pool.idleTimeoutMs", 300_000);
+    private static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("dish.db.pool.validationIntervalMs", 5_000);
+    // Prepared statements kept open per connection; 0 turns statement caching off
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("dish.db.statementCacheSize", 32);
+
+    private static final Timer ACQUIRE_TIMER = MetricsRegistry.getInstance().timer("DatabaseConnection.getConnection");
+
+    // A failed schema update is retried on a later checkout, but not more often than this
+    private static final long SCHEMA_RETRY_INTERVAL_NANOS = 30_000_000_000L;
+
+    private static ConnectionPool pool = null;
+    // Guarded by SCHEMA_LOCK rather than the class lock, so the DDL does not block getPool() callers
+    private static final Object SCHEMA_LOCK = new Object();
+    private static volatile boolean schemaUpdated = false;
+    private static long nextSchemaAttemptNanos = System.nanoTime();
+
+    static {
+        // Read the current pool each time, so the gauges survive closeConnection() and a new pool
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("ConnectionPool.active", () -> pool == null ? 0 : pool.getActiveCount());
+        metrics.gauge("ConnectionPool.idle", () -> pool == null ? 0 : pool.getIdleCount());
+        metrics.gauge("ConnectionPool.waiting", () -> pool == null ? 0 : pool.getWaitingCount());
+        metrics.gauge("ConnectionPool.total", () -> pool == null ? 0 : pool.getTotalCount());
+        metrics.gauge("ConnectionPool.statementCacheHitRate", () -> pool == null ? 0 : pool.getStatementCacheStats().getHitRate());
+    }
 
     private DatabaseConnection() {}
-    
+
+    /**
+     * Borrows a connection from the shared pool. Closing the returned connection gives it back to the pool.
+     * The first successful checkout also brings the schema up to date.
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        long start = System.nanoTime();
+        Connection conn;
+        try {
+            conn = getPool().getConnection();
+        } finally {
+            ACQUIRE_TIMER.recordSince(start);
+        }
+        if (!schemaUpdated) {
+            updateSchema(conn);
+        }
+        return conn;
+    }
+
+    // Callers that arrive while the DDL runs wait for it, since their queries may depend on it
+    private static void updateSchema(Connection conn) {
+        synchronized (SCHEMA_LOCK) {
+            if (schemaUpdated || System.nanoTime() - nextSchemaAttemptNanos < 0) {
+                return;
+            }
+            schemaUpdated = SchemaUpdater.update(conn);
+            if (!schemaUpdated) {
+                nextSchemaAttemptNanos = System.nanoTime() + SCHEMA_RETRY_INTERVAL_NANOS;
+            }
+        }
+    }
+
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
                 // The new driver class name for MySQL Connector/J 8.0+
                 Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
             } catch (ClassNotFoundException e) {
                 System.err.println("MySQL JDBC Driver not found!");
                 e.printStackTrace();
                 throw new SQLException("MySQL Driver not found", e);
             }
+            pool = new ConnectionPool(URL, USER, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                    POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_INTERVAL_MS, STATEMENT_CACHE_SIZE);
         }
-        return connection;
+        return pool;
     }
 
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing the database connection.");
-                e.printStackTrace();
-            }
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 }
@@ -0,0 +1,65 @@
+package com.dish.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Brings an existing database up to what the current code expects.
+ * Every step checks information_schema first, so running it on an up-to-date database is a no-op.
+ */
+public class SchemaUpdater {
+
+    private SchemaUpdater() {}
+
+    /**
+     * Returns true once the schema is up to date, or false if a step failed and the update should be tried again.
+     */
+    public static boolean update(Connection conn) {
+        try {
+            // Backs DishDAO.searchDishes; MATCH() needs an index over exactly these columns
+            if (!indexExists(conn, "dishes", "ft_dishes_text")) {
+                execute(conn, "ALTER TABLE dishes ADD FULLTEXT INDEX ft_dishes_text (name, type, ingredients, introduction)");
+            }
+            // Lets DishDAO.upsertDishes skip rows whose content hasn't changed; NULL on rows written before it existed
+            if (!columnExists(conn, "dishes", "content_hash")) {
+                execute(conn, "ALTER TABLE dishes ADD COLUMN content_hash BINARY(16) NULL");
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Failed to update database schema: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ? LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, index);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? LIMIT 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String ddl) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.dish.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by the SQL text and the
+ * prepareStatement arguments that follow it (generated keys, result set type, ...).
+ * <p>
+ * Callers get a proxy whose close() hands the statement back to the cache instead of closing it,
+ * so the DAOs' try-with-resources blocks stay as they are. Evicted statements are really closed,
+ * straight away if idle or on their logical close if they are checked out at the time.
+ * <p>
+ * Fetch size, max rows and query timeout set by a caller are put back when the statement is returned;
+ * a statement whose other settings were changed (cursor name, escape processing, ...) is closed instead of reused.
+ */
+class StatementCache {
+
+    private static final List<String> RESETTABLE_SETTINGS = Arrays.asList("setFetchSize", "setMaxRows", "setQueryTimeout");
+
+    /**
+     * Counters shared by the caches of every connection in a pool.
+     */
+    static class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+        final AtomicInteger cachedStatements = new AtomicInteger();
+    }
+
+    private final Connection physical;
+    private final int maxStatements;
+    private final Counters counters;
+    private final LinkedHashMap<List<Object>, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxStatements, Counters counters) {
+        this.physical = physical;
+        this.maxStatements = maxStatements;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxStatements) {
+                    counters.evictions.incrementAndGet();
+                    counters.cachedStatements.decrementAndGet();
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Runs one of the {@code Connection.prepareStatement} overloads through the cache.
+     * {@code logical} is the pooled connection the caller sees, returned by the statement's getConnection().
+     */
+    synchronized PreparedStatement prepare(Connection logical, Method method, Object[] args) throws SQLException {
+        List<Object> key = keyOf(args);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.checkedOut) {
+            counters.hits.incrementAndGet();
+            return cached.checkOut(logical);
+        }
+        counters.misses.incrementAndGet();
+        PreparedStatement statement = invokePrepare(method, args);
+        if (cached != null) {
+            // The same SQL is already open further up the caller's stack; this copy is not cached
+            return statement;
+        }
+        try {
+            cached = new CachedStatement(statement);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        statements.put(key, cached);
+        counters.cachedStatements.incrementAndGet();
+        return cached.checkOut(logical);
+    }
+
+    private PreparedStatement invokePrepare(Method method, Object[] args) throws SQLException {
+        try {
+            return (PreparedStatement) method.invoke(physical, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    // Arrays (column indexes/names) are turned into lists so equal arguments give equal keys
+    private static List<Object> keyOf(Object[] args) {
+        Object[] key = args.clone();
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] instanceof int[]) {
+                key[i] = Arrays.toString((int[]) key[i]);
+            } else if (key[i] instanceof Object[]) {
+                key[i] = Arrays.asList((Object[]) key[i]);
+            }
+        }
+        return Arrays.asList(key);
+    }
+
+    /**
+     * Called when the connection goes back to the pool: statements a caller forgot to close are
+     * taken back, and the caller's proxies stop working.
+     */
+    synchronized void reclaimAll() {
+        for (CachedStatement cached : new ArrayList<>(statements.values())) {
+            if (cached.checkedOut) {
+                cached.checkIn();
+            }
+        }
+    }
+
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closeQuietly();
+        }
+        counters.cachedStatements.addAndGet(-statements.size());
+        statements.clear();
+    }
+
+    private synchronized void remove(CachedStatement cached) {
+        if (statements.values().remove(cached)) {
+            counters.cachedStatements.decrementAndGet();
+        }
+        cached.closeQuietly();
+    }
+
+    private class CachedStatement {
+        private final PreparedStatement statement;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean checkedOut = false;
+        private boolean evicted = false;
+        private boolean settingsChanged = false;
+        private boolean unresettable = false;
+        // Bumped on every check-in, so a proxy from an earlier checkout counts as closed
+        private int checkout = 0;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        // Parameter setters take an index as well, so a one-argument setter changes the statement itself
+        void noteCall(String name, Object[] args) {
+            if (RESETTABLE_SETTINGS.contains(name)) {
+                settingsChanged = true;
+            } else if ((name.startsWith("set") && args != null && args.length == 1) || name.equals("closeOnCompletion")) {
+                unresettable = true;
+            }
+        }
+
+        PreparedStatement checkOut(Connection logical) {
+            checkedOut = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(this, checkout, logical));
+        }
+
+        void checkIn() {
+            checkout++;
+            checkedOut = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            if (unresettable) {
+                remove(this);
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                if (settingsChanged) {
+                    statement.setFetchSize(defaultFetchSize);
+                    statement.setMaxRows(defaultMaxRows);
+                    statement.setQueryTimeout(defaultQueryTimeout);
+                    settingsChanged = false;
+                }
+            } catch (SQLException e) {
+                // Can't be reset, so it can't be reused either
+                remove(this);
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!checkedOut) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Closing anyway, nothing else to do
+            }
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final int checkout;
+        private final Connection logical;
+
+        StatementHandler(CachedStatement cached, int checkout, Connection logical) {
+            this.cached = cached;
+            this.checkout = checkout;
+            this.logical = logical;
+        }
+
+        private boolean isReturned() {
+            synchronized (StatementCache.this) {
+                return checkout != cached.checkout;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (checkout == cached.checkout) {
+                            cached.checkIn();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return isReturned() || cached.statement.isClosed();
+                case "getConnection":
+                    return logical;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+            synchronized (StatementCache.this) {
+                if (checkout != cached.checkout) {
+                    throw new SQLException("Statement has already been closed");
+                }
+                cached.noteCall(method.getName(), args);
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.dish.image;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+
+/**
+ * Decodes dish photos on a small background pool so the EDT never waits on ImageIO.
+ * <p>
+ * Jobs are ordered by priority (0 = on screen right now, higher = less urgent), newest first within
+ * the same priority, so the rows the user just scrolled to are decoded before older requests.
+ * Results go through the shared {@link ThumbnailCache} and are delivered on the EDT.
+ */
+public class ImageDecodeService {
+
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_PREFETCH = 1;
+
+    // Time spent waiting in the queue, then time to load the thumbnail (cache hit or full decode)
+    private static final Timer QUEUE_WAIT_TIMER = MetricsRegistry.getInstance().timer("ImageDecode.queueWait");
+    private static final Timer LOAD_TIMER = MetricsRegistry.getInstance().timer("ImageDecode.load");
+
+    private static ImageDecodeService instance = null;
+
+    private final ThumbnailCache cache;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ImageDecodeService(ThumbnailCache cache, int threads) {
+        this.cache = cache;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "image-decoder-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized ImageDecodeService getInstance() {
+        if (instance == null) {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+            instance = new ImageDecodeService(ThumbnailCache.getInstance(), threads);
+            ImageDecodeService service = instance;
+            MetricsRegistry.getInstance().gauge("ImageDecode.queued", service::getQueuedCount);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the thumbnail straight away if it is already in the memory cache, otherwise null.
+     * Lets callers skip the placeholder when nothing needs decoding.
+     */
+    public BufferedImage getIfCached(String filePath, int width, int height, boolean keepAspectRatio) {
+        return cache.getIfInMemory(filePath, width, height, keepAspectRatio);
+    }
+
+    /**
+     * Queues a decode. {@code onDecoded} runs on the EDT with the thumbnail, or with null if the file
+     * has no readable image; it is not called at all if the task is cancelled first.
+     */
+    public DecodeTask submit(String filePath, int width, int height, boolean keepAspectRatio,
+                             int priority, Consumer<BufferedImage> onDecoded) {
+        DecodeTask task = new DecodeTask(filePath, width, height, keepAspectRatio, priority, onDecoded);
+        executor.execute(task);
+        return task;
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public class DecodeTask implements Runnable, Comparable<DecodeTask> {
+        private final String filePath;
+        private final int width;
+        private final int height;
+        private final boolean keepAspectRatio;
+        private final int priority;
+        private final long order = sequence.incrementAndGet();
+        private final Consumer<BufferedImage> onDecoded;
+        private final long submittedNanos = System.nanoTime();
+        private volatile boolean cancelled = false;
+
+        DecodeTask(String filePath, int width, int height, boolean keepAspectRatio, int priority, Consumer<BufferedImage> onDecoded) {
+            this.filePath = filePath;
+            this.width = width;
+            this.height = height;
+            this.keepAspectRatio = keepAspectRatio;
+            this.priority = priority;
+            this.onDecoded = onDecoded;
+        }
+
+        // A cancelled task still sits in the queue, but is skipped as soon as a worker picks it up
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            long start = System.nanoTime();
+            QUEUE_WAIT_TIMER.record(start - submittedNanos);
+            BufferedImage image = cache.getThumbnail(filePath, width, height, keepAspectRatio);
+            LOAD_TIMER.recordSince(start);
+            SwingUtilities.invokeLater(() -> {
+                if (!cancelled) {
+                    onDecoded.accept(image);
+                }
+            });
+        }
+
+        @Override
+        public int compareTo(DecodeTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            return Long.compare(other.order, order);
+        }
+    }
+}
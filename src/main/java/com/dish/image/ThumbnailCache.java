@@ -0,0 +1,221 @@
+package com.dish.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Two-tier cache of scaled dish photos.
+ * <ul>
+ *   <li>Memory: an LRU of ready-to-paint images, bounded by their total pixel bytes.</li>
+ *   <li>Disk: small PNGs of already scaled thumbnails, so a restart doesn't have to decode the originals again.</li>
+ * </ul>
+ * Entries are keyed by path, last-modified time, file size and target size, so replacing a photo
+ * on disk is picked up without any explicit invalidation.
+ */
+public class ThumbnailCache {
+
+    private static final long DEFAULT_MEMORY_BYTES = Long.getLong("dish.thumbnails.memoryBytes", 32L * 1024 * 1024);
+    private static final Path DEFAULT_DISK_DIR = Paths.get(System.getProperty("dish.thumbnails.dir",
+            System.getProperty("user.home") + File.separator + ".dish-information-system" + File.separator + "thumbnails"));
+
+    private static ThumbnailCache instance = null;
+
+    private final long maxMemoryBytes;
+    private final Path diskDir;
+    private final LinkedHashMap<String, BufferedImage> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+
+    public ThumbnailCache(long maxMemoryBytes, Path diskDir) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.diskDir = diskDir;
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache(DEFAULT_MEMORY_BYTES, DEFAULT_DISK_DIR);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the photo at {@code filePath} scaled to fit {@code width} x {@code height},
+     * or null if there is no readable image there. With {@code keepAspectRatio} false the image
+     * is stretched to exactly that size.
+     */
+    public BufferedImage getThumbnail(String filePath, int width, int height, boolean keepAspectRatio) {
+        File file = toImageFile(filePath);
+        if (file == null) {
+            return null;
+        }
+        String key = cacheKey(file, width, height, keepAspectRatio);
+
+        BufferedImage image = getFromMemory(key);
+        if (image != null) {
+            memoryHits.incrementAndGet();
+            return image;
+        }
+
+        Path diskFile = diskDir.resolve(hash(key) + ".png");
+        image = readFromDisk(diskFile);
+        if (image != null) {
+            diskHits.incrementAndGet();
+        } else {
+            image = decodeAndScale(file, width, height, keepAspectRatio);
+            if (image == null) {
+                return null;
+            }
+            decodes.incrementAndGet();
+            writeToDisk(diskFile, image);
+        }
+        putInMemory(key, image);
+        return image;
+    }
+
+    /**
+     * Memory tier only: returns the thumbnail if it is ready to paint, without touching the disk cache or decoding.
+     */
+    public BufferedImage getIfInMemory(String filePath, int width, int height, boolean keepAspectRatio) {
+        File file = toImageFile(filePath);
+        if (file == null) {
+            return null;
+        }
+        BufferedImage image = getFromMemory(cacheKey(file, width, height, keepAspectRatio));
+        if (image != null) {
+            memoryHits.incrementAndGet();
+        }
+        return image;
+    }
+
+    private static File toImageFile(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return null;
+        }
+        File file = new File(filePath);
+        return file.isFile() ? file : null;
+    }
+
+    private static String cacheKey(File file, int width, int height, boolean keepAspectRatio) {
+        return file.getAbsolutePath() + '|' + file.lastModified() + '|' + file.length()
+                + '|' + width + 'x' + height + (keepAspectRatio ? "|aspect" : "|stretch");
+    }
+
+    // --- Memory tier ---
+
+    private synchronized BufferedImage getFromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void putInMemory(String key, BufferedImage image) {
+        BufferedImage previous = memory.put(key, image);
+        if (previous != null) {
+            memoryBytes -= sizeOf(previous);
+        }
+        memoryBytes += sizeOf(image);
+        Iterator<Map.Entry<String, BufferedImage>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+            Map.Entry<String, BufferedImage> eldest = it.next();
+            if (eldest.getValue() == image) {
+                break; // Never evict what was just added
+            }
+            memoryBytes -= sizeOf(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    // --- Disk tier ---
+
+    private BufferedImage readFromDisk(Path diskFile) {
+        if (!Files.isRegularFile(diskFile)) {
+            return null;
+        }
+        try {
+            return ImageIO.read(diskFile.toFile());
+        } catch (IOException e) {
+            return null; // Corrupt entry, it gets rewritten below
+        }
+    }
+
+    private void writeToDisk(Path diskFile, BufferedImage image) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(diskDir);
+            // Write under a temporary name first so a crash never leaves a half-written thumbnail behind
+            tmp = Files.createTempFile(diskDir, "thumb", ".tmp");
+            ImageIO.write(image, "png", tmp.toFile());
+            Files.move(tmp, diskFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Couldn't store thumbnail in " + diskDir + ": " + e.getMessage());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    // --- Decoding ---
+
+    private BufferedImage decodeAndScale(File file, int width, int height, boolean keepAspectRatio) {
+        try {
+            return ThumbnailDecoder.decode(file, width, height, keepAspectRatio);
+        } catch (IOException e) {
+            System.err.println("Error loading image from file: " + file + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is always available", e);
+        }
+    }
+
+    // --- Statistics ---
+
+    public long getMemoryHits() { return memoryHits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getDecodes() { return decodes.get(); }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ThumbnailCache { memoryHits = " + getMemoryHits() +
+               ", diskHits = " + getDiskHits() +
+               ", decodes = " + getDecodes() +
+               ", memoryBytes = " + getMemoryBytes() + "/" + maxMemoryBytes + " }";
+    }
+}
@@ -0,0 +1,127 @@
+package com.dish.io;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads what {@link BlockCompressedOutputStream} wrote, one block at a time, checking every block's checksum.
+ */
+final class BlockCompressedInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32C checksum = new CRC32C();
+    private final byte[] block = new byte[BlockCompressedOutputStream.BLOCK_BYTES];
+    private final byte[] stored = new byte[BlockCompressedOutputStream.BLOCK_BYTES];
+    private int position = 0;
+    private int limit = 0;
+    private boolean finished = false;
+    private long blocksRead = 0;
+
+    BlockCompressedInputStream(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[BlockCompressedOutputStream.MAGIC.length];
+        try {
+            this.in.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Not a block-compressed file: file is too short");
+        }
+        if (!Arrays.equals(magic, BlockCompressedOutputStream.MAGIC)) {
+            throw new IOException("Not a block-compressed file: bad file signature");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+        int n = Math.min(count, limit - position);
+        System.arraycopy(block, position, bytes, offset, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (finished) {
+            return false;
+        }
+        try {
+            int rawLength = in.readInt();
+            if (rawLength == 0) {
+                finished = true;
+                return false;
+            }
+            int storedLength = in.readInt();
+            int expectedChecksum = in.readInt();
+            if (rawLength < 0 || rawLength > block.length || storedLength <= 0 || storedLength > rawLength) {
+                throw new IOException("Corrupt compressed file: bad header for block " + blocksRead);
+            }
+            if (storedLength == rawLength) {
+                in.readFully(block, 0, rawLength);
+            } else {
+                in.readFully(stored, 0, storedLength);
+                inflate(storedLength, rawLength);
+            }
+            checksum.reset();
+            checksum.update(block, 0, rawLength);
+            if ((int) checksum.getValue() != expectedChecksum) {
+                throw new IOException("Corrupt compressed file: checksum mismatch in block " + blocksRead);
+            }
+            position = 0;
+            limit = rawLength;
+            blocksRead++;
+            return true;
+        } catch (EOFException e) {
+            throw new IOException("Compressed file is truncated after " + blocksRead + " blocks", e);
+        }
+    }
+
+    private void inflate(int storedLength, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        int n = 0;
+        try {
+            while (n < rawLength) {
+                int inflated = inflater.inflate(block, n, rawLength - n);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed file: block " + blocksRead + " does not inflate", e);
+        }
+        if (n != rawLength) {
+            throw new IOException("Corrupt compressed file: block " + blocksRead + " is shorter than recorded");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+}
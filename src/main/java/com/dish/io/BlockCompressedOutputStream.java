@@ -0,0 +1,109 @@
+package com.dish.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32C;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a stream as a series of independently deflated blocks:
+ * <pre>
+ *   header:  magic "DISHBLZ\n" (8 bytes)
+ *   block:   raw length (i32, 0 marks the end), stored length (i32), CRC32C of the raw bytes (i32), stored bytes
+ * </pre>
+ * Each block holds up to 256 KB of input deflated at the fastest level, or stored as-is when that would not
+ * make it smaller (stored length == raw length). Next to gzip this gives up a little ratio for speed, and a
+ * damaged file is caught at the block it happens in rather than after the whole file has been read.
+ */
+final class BlockCompressedOutputStream extends OutputStream {
+
+    static final byte[] MAGIC = {'D', 'I', 'S', 'H', 'B', 'L', 'Z', '\n'};
+    static final int BLOCK_BYTES = 256 * 1024;
+
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final CRC32C checksum = new CRC32C();
+    private final byte[] block = new byte[BLOCK_BYTES];
+    private final byte[] compressed = new byte[BLOCK_BYTES];
+    private int length = 0;
+    private boolean closed = false;
+
+    BlockCompressedOutputStream(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.write(MAGIC);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        block[length++] = (byte) b;
+        if (length == BLOCK_BYTES) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) throws IOException {
+        while (count > 0) {
+            int n = Math.min(count, BLOCK_BYTES - length);
+            System.arraycopy(bytes, offset, block, length, n);
+            length += n;
+            offset += n;
+            count -= n;
+            if (length == BLOCK_BYTES) {
+                writeBlock();
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(block, 0, length);
+        deflater.finish();
+        int stored = 0;
+        // The output buffer is no bigger than the input, so running out of room means the block doesn't shrink
+        while (!deflater.finished() && stored < compressed.length) {
+            stored += deflater.deflate(compressed, stored, compressed.length - stored);
+        }
+        checksum.reset();
+        checksum.update(block, 0, length);
+        out.writeInt(length);
+        if (deflater.finished() && stored < length) {
+            out.writeInt(stored);
+            out.writeInt((int) checksum.getValue());
+            out.write(compressed, 0, stored);
+        } else {
+            out.writeInt(length);
+            out.writeInt((int) checksum.getValue());
+            out.write(block, 0, length);
+        }
+        length = 0;
+    }
+
+    // Passes buffered output on but keeps the current block open; only close() ends it
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Writes the last partial block and the end marker. A file without the marker reads as truncated.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (length > 0) {
+                writeBlock();
+            }
+            out.writeInt(0);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+}
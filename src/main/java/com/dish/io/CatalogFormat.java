@@ -0,0 +1,35 @@
+package com.dish.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Layout of the binary dish catalog (.dishcat), shared by {@link CatalogWriter} and {@link CatalogReader}.
+ * <pre>
+ *   header:  magic "DISHCAT\n" (8 bytes), version (u16), flags (u16, 0)
+ *   block:   row count (i32, 0 marks the end of the catalog), payload length in bytes (i32), then the payload:
+ *            new type count (varint), then that many strings, appended to the type dictionary
+ *            rows:  id (i32), price (f64), type index + 1 (varint, 0 = null),
+ *                   name, ingredients, introduction, photo path (strings)
+ *   string:  UTF-8 byte length + 1 (varint, 0 = null), then the bytes
+ * </pre>
+ * All fixed-width numbers are big-endian. Rows go in blocks so the writer can stream without knowing
+ * the final row count or the full set of types, and the dictionary grows as new types first appear.
+ * The payload length lets the reader pull in a whole block with one read and decode it from memory.
+ */
+final class CatalogFormat {
+
+    static final byte[] MAGIC = {'D', 'I', 'S', 'H', 'C', 'A', 'T', '\n'};
+    static final int VERSION = 1;
+    static final int ROWS_PER_BLOCK = 1024;
+
+    private CatalogFormat() {}
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,147 @@
+package com.dish.io;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.dish.model.Dish;
+
+/**
+ * Reads a binary catalog written by {@link CatalogWriter}. Each block is pulled in with a single read and
+ * decoded from memory; numbers are read as-is, with no text parsing, and every dish of the same type
+ * shares one String instance from the dictionary.
+ */
+public class CatalogReader implements DishReader {
+
+    // No block comes anywhere near this; a bigger length means the file is damaged
+    private static final int MAX_BLOCK_BYTES = 256 * 1024 * 1024;
+
+    private final DataInputStream in;
+    private final List<String> types = new ArrayList<>();
+    private ByteBuffer block = ByteBuffer.allocate(0);
+    private int rowsLeftInBlock = 0;
+    private boolean finished = false;
+    private long rowsRead = 0;
+
+    public CatalogReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        byte[] magic = new byte[CatalogFormat.MAGIC.length];
+        try {
+            in.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Not a dish catalog: file is too short");
+        }
+        if (!Arrays.equals(magic, CatalogFormat.MAGIC)) {
+            throw new IOException("Not a dish catalog: bad file signature");
+        }
+        int version = in.readUnsignedShort();
+        if (version != CatalogFormat.VERSION) {
+            throw new IOException("Unsupported dish catalog version " + version + " (this build reads version " + CatalogFormat.VERSION + ")");
+        }
+        in.readUnsignedShort(); // Flags, none defined yet
+    }
+
+    @Override
+    public Dish read() throws IOException {
+        while (rowsLeftInBlock == 0) {
+            if (finished || !startBlock()) {
+                return null;
+            }
+        }
+        try {
+            rowsLeftInBlock--;
+            int id = block.getInt();
+            double price = block.getDouble();
+            String type = typeAt(readVarInt());
+            String name = readString();
+            String ingredients = readString();
+            String introduction = readString();
+            String photoPath = readString();
+            rowsRead++;
+            return new Dish(id, name, type, price, ingredients, introduction, photoPath);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt catalog: row " + rowsRead + " runs past the end of its block");
+        }
+    }
+
+    private boolean startBlock() throws IOException {
+        try {
+            int rows = in.readInt();
+            if (rows == 0) {
+                finished = true;
+                return false;
+            }
+            int length = in.readInt();
+            if (rows < 0 || length < 0 || length > MAX_BLOCK_BYTES) {
+                throw new IOException("Corrupt catalog: bad block header after " + rowsRead + " rows");
+            }
+            if (block.capacity() < length) {
+                block = ByteBuffer.allocate(Math.max(length, block.capacity() * 2));
+            }
+            block.clear().limit(length);
+            in.readFully(block.array(), 0, length);
+            int newTypes = readVarInt();
+            for (int i = 0; i < newTypes; i++) {
+                types.add(readString());
+            }
+            rowsLeftInBlock = rows;
+            return true;
+        } catch (EOFException e) {
+            throw new IOException("Dish catalog is truncated after " + rowsRead + " rows", e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt catalog: type dictionary runs past the end of its block");
+        }
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = block.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt catalog: varint longer than 5 bytes");
+    }
+
+    private String typeAt(int reference) throws IOException {
+        if (reference == 0) {
+            return null;
+        }
+        if (reference > types.size()) {
+            throw new IOException("Corrupt catalog: unknown type #" + reference + " at row " + rowsRead);
+        }
+        return types.get(reference - 1);
+    }
+
+    private String readString() throws IOException {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        int start = block.position();
+        block.position(start + length); // Throws if the string would run past the block
+        return new String(block.array(), start, length, StandardCharsets.UTF_8);
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
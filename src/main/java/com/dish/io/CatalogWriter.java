@@ -0,0 +1,115 @@
+package com.dish.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dish.model.Dish;
+
+/**
+ * Writes dishes in the binary catalog format described in {@link CatalogFormat}.
+ * Unlike the TXT format every field survives unchanged, semicolons and line breaks included.
+ * Rows are buffered one block at a time, so memory use does not depend on the number of dishes.
+ */
+public class CatalogWriter implements DishWriter {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> typeIndex = new HashMap<>();
+    private final List<String> newTypes = new ArrayList<>();
+    private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream block = new DataOutputStream(blockBytes);
+    private final ByteArrayOutputStream typeBytes = new ByteArrayOutputStream();
+    private final DataOutputStream types = new DataOutputStream(typeBytes);
+    private int blockRows = 0;
+    private boolean closed = false;
+
+    public CatalogWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.out.write(CatalogFormat.MAGIC);
+        this.out.writeShort(CatalogFormat.VERSION);
+        this.out.writeShort(0);
+    }
+
+    @Override
+    public void write(Dish dish) throws IOException {
+        block.writeInt(dish.getId());
+        block.writeDouble(dish.getPrice());
+        CatalogFormat.writeVarInt(block, typeReference(dish.getType()));
+        writeString(dish.getName());
+        writeString(dish.getIngredients());
+        writeString(dish.getIntroduction());
+        writeString(dish.getPhotoPath());
+        if (++blockRows == CatalogFormat.ROWS_PER_BLOCK) {
+            flushBlock();
+        }
+    }
+
+    // Index into the dictionary plus one, adding the type to the current block's new entries the first time it is seen
+    private int typeReference(String type) {
+        if (type == null) {
+            return 0;
+        }
+        Integer index = typeIndex.get(type);
+        if (index == null) {
+            index = typeIndex.size();
+            typeIndex.put(type, index);
+            newTypes.add(type);
+        }
+        return index + 1;
+    }
+
+    private void writeString(String value) throws IOException {
+        writeString(block, value);
+    }
+
+    private static void writeString(DataOutputStream target, String value) throws IOException {
+        if (value == null) {
+            CatalogFormat.writeVarInt(target, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        CatalogFormat.writeVarInt(target, bytes.length + 1);
+        target.write(bytes);
+    }
+
+    private void flushBlock() throws IOException {
+        CatalogFormat.writeVarInt(types, newTypes.size());
+        for (String type : newTypes) {
+            writeString(types, type);
+        }
+        out.writeInt(blockRows);
+        out.writeInt(typeBytes.size() + blockBytes.size());
+        typeBytes.writeTo(out);
+        blockBytes.writeTo(out);
+        typeBytes.reset();
+        blockBytes.reset();
+        newTypes.clear();
+        blockRows = 0;
+    }
+
+    /**
+     * Writes the last partial block and the end marker. A catalog without the marker reads as truncated.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (blockRows > 0) {
+                flushBlock();
+            }
+            out.writeInt(0);
+        } finally {
+            out.close();
+        }
+    }
+}
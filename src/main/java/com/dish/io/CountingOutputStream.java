@@ -0,0 +1,33 @@
+package com.dish.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes everything through and counts the bytes, e.g. to measure data before it reaches a compressor.
+ */
+final class CountingOutputStream extends FilterOutputStream {
+
+    private long count = 0;
+
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        count += length;
+    }
+
+    long getCount() {
+        return count;
+    }
+}
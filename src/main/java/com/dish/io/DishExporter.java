@@ -0,0 +1,143 @@
+package com.dish.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dish.dao.DishDAO;
+import com.dish.metrics.Counter;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+
+/**
+ * Writes the dish table to a TXT file or binary catalog one row at a time, straight from a streaming query,
+ * optionally through a compressor. Heap use does not grow with the size of the catalog.
+ */
+public class DishExporter implements Callable<ExportResult> {
+
+    private static final Counter ROWS_COUNTER = MetricsRegistry.getInstance().counter("Export.rows");
+    private static final Counter BYTES_COUNTER = MetricsRegistry.getInstance().counter("Export.fileBytes");
+    private static final Timer DURATION_TIMER = MetricsRegistry.getInstance().timer("Export.duration");
+
+    private final DishDAO dishDAO;
+    private final File file;
+    private final DishFileFormat format;
+    private final Compression compression;
+    private final long expectedRows;
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile boolean cancelled = false;
+
+    // expectedRows is only used for progress reporting
+    public DishExporter(DishDAO dishDAO, File file, long expectedRows) {
+        this(dishDAO, file, DishFileFormat.forFile(file), Compression.forFile(file), expectedRows);
+    }
+
+    public DishExporter(DishDAO dishDAO, File file, DishFileFormat format, Compression compression, long expectedRows) {
+        this.dishDAO = dishDAO;
+        this.file = file;
+        this.format = format;
+        this.compression = compression;
+        this.expectedRows = expectedRows;
+    }
+
+    /**
+     * Runs the export and blocks until it finishes. Call this off the EDT.
+     * Rows go to a temporary file next to the target, which only replaces the target once every row was written.
+     * A cancelled or failed export deletes the temporary file and leaves any existing file untouched;
+     * closing the writer still appends the end marker and the compressor trailer, so a partial file would
+     * otherwise look complete.
+     */
+    @Override
+    public ExportResult call() throws IOException {
+        long start = System.nanoTime();
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        boolean completed = false;
+        CountingOutputStream uncompressed;
+        try {
+            uncompressed = new CountingOutputStream(openCompressed(temp));
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+        try {
+            // Closed before the move, since closing writes the end marker and the compressor trailer
+            try (DishWriter writer = openWriter(uncompressed)) {
+                long streamed = dishDAO.streamAllDishes(dish -> {
+                    if (cancelled) {
+                        throw new CancellationException();
+                    }
+                    try {
+                        writer.write(dish);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rowsWritten.incrementAndGet();
+                    ROWS_COUNTER.increment();
+                });
+                if (streamed < 0) {
+                    throw new IOException("Database error while reading dishes");
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            completed = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (CancellationException e) {
+            return new ExportResult(rowsWritten.get(), true, System.nanoTime() - start, uncompressed.getCount(), 0);
+        } finally {
+            if (!completed) {
+                deleteQuietly(temp);
+            }
+            DURATION_TIMER.recordSince(start);
+        }
+        long fileBytes = file.length();
+        BYTES_COUNTER.add(fileBytes);
+        return new ExportResult(rowsWritten.get(), false, System.nanoTime() - start, uncompressed.getCount(), fileBytes);
+    }
+
+    // Writing the compressor header can fail, which must not leak the file handle
+    private OutputStream openCompressed(Path path) throws IOException {
+        OutputStream out = Files.newOutputStream(path);
+        try {
+            return compression.compress(out);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private DishWriter openWriter(OutputStream out) throws IOException {
+        switch (format) {
+            case CATALOG: return new CatalogWriter(out);
+            default: return new TextDishWriter(out);
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public long getRowsWritten() { return rowsWritten.get(); }
+    public long getExpectedRows() { return expectedRows; }
+
+    public double getFractionDone() {
+        return expectedRows > 0 ? Math.min(1.0, (double) rowsWritten.get() / expectedRows) : -1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.dish.io;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * The file formats dishes can be imported from and exported to, recognised by file extension.
+ * Either one can additionally be compressed, see {@link Compression}.
+ */
+public enum DishFileFormat {
+
+    /** One {@link com.dish.model.Dish#toFileString()} line per dish. */
+    TEXT("Text files (*.txt)", "txt"),
+    /** The binary catalog written by {@link CatalogWriter}. */
+    CATALOG("Dish catalogs (*.dishcat)", "dishcat");
+
+    private final String description;
+    private final String extension;
+
+    DishFileFormat(String description, String extension) {
+        this.description = description;
+        this.extension = extension;
+    }
+
+    public String getDescription() { return description; }
+    public String getExtension() { return extension; }
+
+    // Looks past a compression extension, so "dishes.txt.gz" is TEXT
+    public boolean matches(File file) {
+        return Compression.stripSuffix(file.getName()).toLowerCase(Locale.ROOT).endsWith("." + extension);
+    }
+
+    // Anything without a known extension is treated as text, which is what older exports are
+    public static DishFileFormat forFile(File file) {
+        for (DishFileFormat format : values()) {
+            if (format.matches(file)) {
+                return format;
+            }
+        }
+        return TEXT;
+    }
+}
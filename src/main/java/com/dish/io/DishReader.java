@@ -0,0 +1,17 @@
+package com.dish.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.dish.model.Dish;
+
+/**
+ * Streams dishes out of an import file, one at a time.
+ */
+public interface DishReader extends Closeable {
+
+    /**
+     * Returns the next dish, or null at the end of the file.
+     */
+    Dish read() throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.dish.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.dish.model.Dish;
+
+/**
+ * Streams dishes into an export file. Closing the writer finishes the file.
+ */
+public interface DishWriter extends Closeable {
+
+    void write(Dish dish) throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.dish.io;
+
+/**
+ * Final counts of an export run.
+ */
+public class ExportResult {
+    private final long rowsWritten;
+    private final boolean cancelled;
+    private final long elapsedNanos;
+    private final long uncompressedBytes;
+    private final long fileBytes;
+
+    public ExportResult(long rowsWritten, boolean cancelled, long elapsedNanos, long uncompressedBytes, long fileBytes) {
+        this.rowsWritten = rowsWritten;
+        this.cancelled = cancelled;
+        this.elapsedNanos = elapsedNanos;
+        this.uncompressedBytes = uncompressedBytes;
+        this.fileBytes = fileBytes;
+    }
+
+    public long getRowsWritten() { return rowsWritten; }
+    public boolean isCancelled() { return cancelled; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    // Size of the TXT or catalog data before compression; the same as getFileBytes() for an uncompressed export
+    public long getUncompressedBytes() { return uncompressedBytes; }
+    public long getFileBytes() { return fileBytes; }
+
+    // Uncompressed size divided by file size, 1 for an uncompressed export
+    public double getCompressionRatio() {
+        return fileBytes > 0 ? (double) uncompressedBytes / fileBytes : 1;
+    }
+
+    // Uncompressed megabytes produced per second
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return uncompressedBytes / 1e6 * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rowsWritten * 1_000_000_000.0 / elapsedNanos;
+    }
+}
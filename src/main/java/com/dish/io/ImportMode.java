@@ -0,0 +1,11 @@
+package com.dish.io;
+
+/**
+ * What an import does with the ids in the file.
+ */
+public enum ImportMode {
+    /** Every row becomes a new dish with a fresh id; the ids in the file are ignored. */
+    APPEND,
+    /** Rows are matched on their id: new ids are inserted, existing ones updated, identical ones left alone. */
+    UPSERT
+}
@@ -0,0 +1,416 @@
+package com.dish.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dish.dao.BatchInsertResult;
+import com.dish.dao.DishDAO;
+import com.dish.dao.UpsertResult;
+import com.dish.metrics.Counter;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+import com.dish.model.Dish;
+
+/**
+ * Imports a TXT dish file as a three stage pipeline:
+ * <pre>
+ *   reader --(line chunks)--> N parse workers --(dish chunks)--> batching DB writer
+ * </pre>
+ * The stages are joined by bounded queues, so a slow database pushes back on the reader
+ * instead of letting parsed rows pile up in memory.
+ * <p>
+ * A binary catalog needs no parsing, so there the reader decodes dishes itself and feeds the writer directly.
+ * <p>
+ * An uncompressed TXT file is memory-mapped instead: it is cut into line-aligned byte ranges and each parse worker
+ * reads its own range with a {@link MappedTextDishReader}, so there is no reader stage and no line Strings.
+ * Set {@code -Ddish.import.mapped=false} to fall back to the line reader.
+ * <p>
+ * Compressed files ({@link Compression}) are decompressed on the fly by the reader stage.
+ * <p>
+ * In {@link ImportMode#UPSERT} mode the writer matches rows on their id instead of appending them,
+ * and rows that are already stored unchanged cost no writes.
+ */
+public class ImportPipeline implements Callable<ImportResult> {
+
+    private static final int LINES_PER_CHUNK = 256;
+    private static final int MAX_REPORTED_MALFORMED = 100;
+    private static final boolean MAPPED_TEXT = !"false".equals(System.getProperty("dish.import.mapped"));
+
+    // Rows are counted per written batch, so their rate shows the throughput of a running import
+    private static final Counter ROWS_COUNTER = MetricsRegistry.getInstance().counter("Import.rows");
+    private static final Counter FAILED_ROWS_COUNTER = MetricsRegistry.getInstance().counter("Import.failedRows");
+    private static final Counter BYTES_COUNTER = MetricsRegistry.getInstance().counter("Import.fileBytes");
+    private static final Timer BATCH_TIMER = MetricsRegistry.getInstance().timer("Import.writeBatch");
+    private static final Timer DURATION_TIMER = MetricsRegistry.getInstance().timer("Import.duration");
+
+    // Sent down a queue to tell the next stage that no more chunks are coming
+    private static final List<String> END_OF_LINES = Collections.emptyList();
+    private static final List<Dish> END_OF_DISHES = Collections.emptyList();
+
+    private final DishDAO dishDAO;
+    private final File file;
+    private final DishFileFormat format;
+    private final Compression compression;
+    private final ImportMode mode;
+    private final int parserThreads;
+    private final int batchSize;
+
+    private final BlockingQueue<List<String>> lineQueue;
+    private final BlockingQueue<List<Dish>> dishQueue;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong uncompressedBytesRead = new AtomicLong();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong insertedCount = new AtomicLong();
+    private final AtomicLong updatedCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile boolean cancelled = false;
+    private volatile Exception readError;
+    private final List<MalformedLine> malformedLines = new ArrayList<>(); // Guarded by itself
+    private ExecutorService executor;
+    private int dishProducers; // Stages feeding the writer, each sends one END_OF_DISHES
+
+    public ImportPipeline(DishDAO dishDAO, File file) {
+        this(dishDAO, file, ImportMode.APPEND);
+    }
+
+    public ImportPipeline(DishDAO dishDAO, File file, ImportMode mode) {
+        this(dishDAO, file, mode, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 1000, 16);
+    }
+
+    public ImportPipeline(DishDAO dishDAO, File file, ImportMode mode, int parserThreads, int batchSize, int queueCapacity) {
+        this.dishDAO = dishDAO;
+        this.file = file;
+        this.format = DishFileFormat.forFile(file);
+        this.compression = Compression.forFile(file);
+        this.mode = mode;
+        this.parserThreads = parserThreads;
+        this.batchSize = batchSize;
+        this.lineQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dishQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Runs the whole import and blocks until every stage has finished. Call this off the EDT.
+     */
+    @Override
+    public ImportResult call() throws InterruptedException {
+        startNanos = System.nanoTime();
+        FileChannel channel = null;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parserThreads + 2, r -> {
+            Thread t = new Thread(r, "dish-import-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            if (format == DishFileFormat.CATALOG) {
+                dishProducers = 1;
+                executor.execute(this::readCatalogStage);
+            } else if (MAPPED_TEXT && compression == Compression.NONE) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                long[] bounds = MappedTextDishReader.splitRanges(channel, parserThreads);
+                dishProducers = bounds.length - 1;
+                for (int i = 0; i < dishProducers; i++) {
+                    long start = bounds[i];
+                    long end = bounds[i + 1];
+                    FileChannel source = channel;
+                    executor.execute(() -> mappedParseStage(source, start, end));
+                }
+            } else {
+                dishProducers = parserThreads;
+                executor.execute(this::readStage);
+                for (int i = 0; i < parserThreads; i++) {
+                    executor.execute(this::parseStage);
+                }
+            }
+            executor.execute(this::writeStage);
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting; cancel() is what cuts this short
+            }
+        } catch (IOException e) {
+            // The file could not be opened or split before any stage was started
+            readError = e;
+            cancel();
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } finally {
+            endNanos = System.nanoTime();
+            closeQuietly(channel);
+            DURATION_TIMER.record(endNanos - startNanos);
+            BYTES_COUNTER.add(bytesRead.get());
+        }
+        List<MalformedLine> malformed;
+        synchronized (malformedLines) {
+            malformed = new ArrayList<>(malformedLines);
+        }
+        long uncompressedBytes = compression == Compression.NONE ? bytesRead.get() : uncompressedBytesRead.get();
+        return new ImportResult(insertedCount.get(), updatedCount.get(), unchangedCount.get(), failedCount.get(),
+                cancelled, endNanos - startNanos, readError, malformed, bytesRead.get(), uncompressedBytes);
+    }
+
+    /**
+     * Stops all stages. Chunks that were already committed stay in the database.
+     */
+    public void cancel() {
+        cancelled = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public ImportProgress getProgress() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        long elapsed = startNanos != 0 ? end - startNanos : 0;
+        return new ImportProgress(bytesRead.get(), file.length(), linesRead.get(),
+                insertedCount.get() + updatedCount.get(), unchangedCount.get(), failedCount.get(), elapsed);
+    }
+
+    // --- Stages ---
+
+    private void readStage() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(openInput(), StandardCharsets.UTF_8))) {
+            List<String> chunk = new ArrayList<>(LINES_PER_CHUNK);
+            String line;
+            while (!cancelled && (line = reader.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() == LINES_PER_CHUNK) {
+                    lineQueue.put(chunk);
+                    linesRead.addAndGet(chunk.size());
+                    chunk = new ArrayList<>(LINES_PER_CHUNK);
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                lineQueue.put(chunk);
+                linesRead.addAndGet(chunk.size());
+            }
+        } catch (IOException e) {
+            readError = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        signalEnd(lineQueue, END_OF_LINES, parserThreads);
+    }
+
+    // The file, decompressed if needed; bytesRead counts file bytes so progress matches the file size
+    private InputStream openInput() throws IOException {
+        InputStream in = new CountingInputStream(new FileInputStream(file), bytesRead);
+        if (compression == Compression.NONE) {
+            return in;
+        }
+        try {
+            return new CountingInputStream(compression.decompress(in), uncompressedBytesRead);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void readCatalogStage() {
+        try (CatalogReader reader = new CatalogReader(openInput())) {
+            List<Dish> chunk = new ArrayList<>(LINES_PER_CHUNK);
+            Dish dish;
+            while (!cancelled && (dish = reader.read()) != null) {
+                chunk.add(dish);
+                if (chunk.size() == LINES_PER_CHUNK) {
+                    dishQueue.put(chunk);
+                    linesRead.addAndGet(chunk.size());
+                    chunk = new ArrayList<>(LINES_PER_CHUNK);
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                dishQueue.put(chunk);
+                linesRead.addAndGet(chunk.size());
+            }
+        } catch (IOException e) {
+            readError = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        signalEnd(dishQueue, END_OF_DISHES, 1);
+    }
+
+    private void mappedParseStage(FileChannel channel, long start, long end) {
+        try (MappedTextDishReader reader = new MappedTextDishReader(channel, start, end, this::recordMalformed)) {
+            List<Dish> chunk = new ArrayList<>(LINES_PER_CHUNK);
+            long reported = start;
+            Dish dish;
+            while (!cancelled && (dish = reader.read()) != null) {
+                chunk.add(dish);
+                if (chunk.size() == LINES_PER_CHUNK) {
+                    dishQueue.put(chunk);
+                    linesRead.addAndGet(chunk.size());
+                    bytesRead.addAndGet(reader.getPosition() - reported);
+                    reported = reader.getPosition();
+                    chunk = new ArrayList<>(LINES_PER_CHUNK);
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                dishQueue.put(chunk);
+                linesRead.addAndGet(chunk.size());
+            }
+            bytesRead.addAndGet(reader.getPosition() - reported);
+        } catch (IOException e) {
+            readError = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        signalEnd(dishQueue, END_OF_DISHES, 1);
+    }
+
+    private void recordMalformed(MalformedLine line) {
+        failedCount.incrementAndGet();
+        linesRead.incrementAndGet();
+        synchronized (malformedLines) {
+            if (malformedLines.size() < MAX_REPORTED_MALFORMED) {
+                malformedLines.add(line);
+            }
+        }
+    }
+
+    private void parseStage() {
+        try {
+            while (true) {
+                List<String> lines = lineQueue.take();
+                if (lines == END_OF_LINES) {
+                    break;
+                }
+                List<Dish> dishes = new ArrayList<>(lines.size());
+                for (String line : lines) {
+                    Dish dish = Dish.fromFileString(line);
+                    if (dish != null) {
+                        dishes.add(dish);
+                    } else {
+                        failedCount.incrementAndGet();
+                    }
+                }
+                if (!dishes.isEmpty()) {
+                    dishQueue.put(dishes);
+                }
+            }
+            dishQueue.put(END_OF_DISHES);
+        } catch (InterruptedException e) {
+            // Cancelled
+        }
+    }
+
+    private void writeStage() {
+        List<Dish> batch = new ArrayList<>(batchSize);
+        int finishedProducers = 0;
+        try {
+            while (finishedProducers < dishProducers) {
+                List<Dish> dishes = dishQueue.take();
+                if (dishes == END_OF_DISHES) {
+                    finishedProducers++;
+                    continue;
+                }
+                batch.addAll(dishes);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } catch (InterruptedException e) {
+            // Cancelled; whatever is still buffered was never written
+        } catch (RuntimeException e) {
+            // Without a writer the producers would block on the full queue forever
+            e.printStackTrace();
+            readError = e;
+            cancel();
+        }
+    }
+
+    private void writeBatch(List<Dish> batch) {
+        long start = System.nanoTime();
+        int failed;
+        if (mode == ImportMode.UPSERT) {
+            UpsertResult result = dishDAO.upsertDishes(batch, batchSize);
+            insertedCount.addAndGet(result.getInsertedCount());
+            updatedCount.addAndGet(result.getUpdatedCount());
+            unchangedCount.addAndGet(result.getUnchangedCount());
+            failed = result.getFailedCount();
+        } else {
+            BatchInsertResult result = dishDAO.addDishes(batch, batchSize);
+            insertedCount.addAndGet(result.getInsertedCount());
+            failed = result.getFailedCount();
+        }
+        failedCount.addAndGet(failed);
+        BATCH_TIMER.recordSince(start);
+        ROWS_COUNTER.add(batch.size() - failed);
+        FAILED_ROWS_COUNTER.add(failed);
+    }
+
+    private static <T> void signalEnd(BlockingQueue<T> queue, T marker, int consumers) {
+        try {
+            for (int i = 0; i < consumers; i++) {
+                queue.put(marker);
+            }
+        } catch (InterruptedException e) {
+            // Cancelled, the consumers are being interrupted as well
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.dish.io;
+
+/**
+ * Point-in-time snapshot of a running import, cheap enough to poll from a Swing timer.
+ */
+public class ImportProgress {
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long linesRead;
+    private final long importedCount;
+    private final long unchangedCount;
+    private final long failedCount;
+    private final long elapsedNanos;
+
+    public ImportProgress(long bytesRead, long totalBytes, long linesRead, long importedCount, long unchangedCount,
+                          long failedCount, long elapsedNanos) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.linesRead = linesRead;
+        this.importedCount = importedCount;
+        this.unchangedCount = unchangedCount;
+        this.failedCount = failedCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getBytesRead() { return bytesRead; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getLinesRead() { return linesRead; }
+    public long getImportedCount() { return importedCount; }
+    public long getUnchangedCount() { return unchangedCount; }
+    public long getFailedCount() { return failedCount; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    // Rows that have made it all the way through the pipeline (stored, skipped as unchanged or rejected), per second
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (importedCount + unchangedCount + failedCount) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double getFractionDone() {
+        return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 0;
+    }
+}
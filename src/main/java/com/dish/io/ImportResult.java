@@ -0,0 +1,72 @@
+package com.dish.io;
+
+import java.util.List;
+
+/**
+ * Final counts of an import run.
+ */
+public class ImportResult {
+    private final long insertedCount;
+    private final long updatedCount;
+    private final long unchangedCount;
+    private final long failedCount;
+    private final boolean cancelled;
+    private final long elapsedNanos;
+    private final Exception error;
+    private final List<MalformedLine> malformedLines;
+    private final long fileBytes;
+    private final long uncompressedBytes;
+
+    public ImportResult(long insertedCount, long updatedCount, long unchangedCount, long failedCount,
+                        boolean cancelled, long elapsedNanos, Exception error, List<MalformedLine> malformedLines,
+                        long fileBytes, long uncompressedBytes) {
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.unchangedCount = unchangedCount;
+        this.failedCount = failedCount;
+        this.cancelled = cancelled;
+        this.elapsedNanos = elapsedNanos;
+        this.error = error;
+        this.malformedLines = malformedLines;
+        this.fileBytes = fileBytes;
+        this.uncompressedBytes = uncompressedBytes;
+    }
+
+    // Rows written, new or updated
+    public long getImportedCount() { return insertedCount + updatedCount; }
+    public long getInsertedCount() { return insertedCount; }
+    public long getUpdatedCount() { return updatedCount; }
+    // Upsert imports only: rows already stored with the same content, so nothing was written
+    public long getUnchangedCount() { return unchangedCount; }
+    public long getFailedCount() { return failedCount; }
+    public boolean isCancelled() { return cancelled; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    // The I/O error that stopped the import early, or null if the whole file was read
+    public Exception getError() { return error; }
+    // The first lines that could not be parsed, in no particular order; empty if the reader doesn't track offsets
+    public List<MalformedLine> getMalformedLines() { return malformedLines; }
+
+    public long getFileBytes() { return fileBytes; }
+    // What the file decompressed to; the same as getFileBytes() for an uncompressed file
+    public long getUncompressedBytes() { return uncompressedBytes; }
+
+    // Uncompressed size divided by file size, 1 for an uncompressed file
+    public double getCompressionRatio() {
+        return fileBytes > 0 ? (double) uncompressedBytes / fileBytes : 1;
+    }
+
+    // Uncompressed megabytes read per second
+    public double getMegabytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return uncompressedBytes / 1e6 * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (insertedCount + updatedCount + unchangedCount + failedCount) * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.dish.io;
+
+/**
+ * A line of an import file that could not be turned into a dish, with where it starts in the file.
+ */
+public class MalformedLine {
+
+    private static final int MAX_EXCERPT_CHARS = 80;
+
+    private final long byteOffset;
+    private final String reason;
+    private final String excerpt;
+
+    public MalformedLine(long byteOffset, String reason, String line) {
+        this.byteOffset = byteOffset;
+        this.reason = reason;
+        this.excerpt = line.length() > MAX_EXCERPT_CHARS ? line.substring(0, MAX_EXCERPT_CHARS) + "..." : line;
+    }
+
+    // Offset of the line's first byte from the start of the file
+    public long getByteOffset() { return byteOffset; }
+    public String getReason() { return reason; }
+    public String getExcerpt() { return excerpt; }
+
+    @Override
+    public String toString() {
+        return "byte " + byteOffset + ": " + reason + " in \"" + excerpt + "\"";
+    }
+}
@@ -0,0 +1,376 @@
+package com.dish.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.dish.model.Dish;
+
+/**
+ * Reads the TXT dish format straight out of a memory-mapped file.
+ * <p>
+ * Delimiters are found by scanning the mapped bytes, the id and price are decoded from the bytes without
+ * building a String, and only the text fields become Strings, each copied once into a reusable buffer and
+ * decoded from there. Delimiters are searched eight bytes at a time. Repeated dish types share one String. Per row that leaves the Dish and its text fields
+ * as the only allocations, instead of a line, a split array and seven substrings.
+ * <p>
+ * Lines are parsed exactly like {@link Dish#fromFileString(String)}. Lines that don't parse are skipped
+ * and handed to the malformed-line callback with their byte offset in the file.
+ * <p>
+ * A reader can cover just a byte range of the file (see {@link #splitRanges}), so several threads can
+ * parse one file side by side. The file is mapped in windows, which keeps files over 2 GB readable.
+ */
+public class MappedTextDishReader implements DishReader {
+
+    private static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+    private static final int SEPARATORS = 6; // Seven fields
+    private static final int TYPE_CACHE_SLOTS = 256;
+    private static final int MAX_FAST_PATH_DIGITS = 15; // Any 15-digit mantissa is exact in a double
+    private static final double[] POWERS_OF_TEN = new double[23]; // Exact in a double up to 1e22
+
+    // Bytes repeated across a long, for matching eight bytes of the file at once
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long SEMICOLONS = 0x3B3B3B3B3B3B3B3BL;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final long end;
+    private final int windowBytes;
+    private final Consumer<MalformedLine> onMalformed;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private final int[] separators = new int[SEPARATORS];
+    private int separatorCount;
+    private byte[] scratch = new byte[256];
+    private final byte[][] typeCacheKeys = new byte[TYPE_CACHE_SLOTS][];
+    private final String[] typeCacheValues = new String[TYPE_CACHE_SLOTS];
+    private long malformedCount = 0;
+
+    /**
+     * Reads the whole file. Malformed lines are only counted.
+     */
+    public MappedTextDishReader(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.READ), true, 0, -1, DEFAULT_WINDOW_BYTES, line -> { });
+    }
+
+    /**
+     * Reads the lines in [start, end) of a channel the caller keeps open; start must be the beginning of a line.
+     */
+    public MappedTextDishReader(FileChannel channel, long start, long end, Consumer<MalformedLine> onMalformed) throws IOException {
+        this(channel, false, start, end, DEFAULT_WINDOW_BYTES, onMalformed);
+    }
+
+    MappedTextDishReader(FileChannel channel, boolean ownsChannel, long start, long end, int windowBytes,
+                         Consumer<MalformedLine> onMalformed) throws IOException {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.end = end < 0 ? channel.size() : end;
+        this.windowBytes = windowBytes;
+        this.onMalformed = onMalformed;
+        this.position = start;
+    }
+
+    /**
+     * Cuts a file into at most {@code parts} byte ranges that each start at the beginning of a line.
+     * Returns the range boundaries: range i is [bounds[i], bounds[i + 1]).
+     */
+    public static long[] splitRanges(FileChannel channel, int parts) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[parts + 1];
+        int count = 1;
+        ByteBuffer probe = ByteBuffer.allocate(8 * 1024);
+        for (int i = 1; i < parts; i++) {
+            long boundary = Math.max(size * i / parts, bounds[count - 1]);
+            boundary = nextLineStart(channel, boundary, size, probe);
+            if (boundary > bounds[count - 1] && boundary < size) {
+                bounds[count++] = boundary;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // The offset just after the first '\n' at or after {@code from}, or the file size if there is none
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long offset = from;
+        while (offset < size) {
+            probe.clear();
+            int n = channel.read(probe, offset);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += n;
+        }
+        return size;
+    }
+
+    @Override
+    public Dish read() throws IOException {
+        while (position < end) {
+            long lineOffset = position;
+            int lineEnd = scanLine();
+            if (lineEnd < 0) {
+                skipOverlongLine(lineOffset);
+                continue;
+            }
+            int lineStart = (int) (lineOffset - windowStart);
+            position = windowStart + lineEnd + 1;
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && window.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            Dish dish = parseLine(lineOffset, lineStart, contentEnd);
+            if (dish != null) {
+                return dish;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the end of the line starting at {@link #position}, noting the first six separators on the way.
+     * Returns the window index of the line's '\n' (or of the range end for a last line without one),
+     * or -1 if the line is longer than a whole window.
+     */
+    private int scanLine() throws IOException {
+        if (window == null || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        int from = (int) (position - windowStart);
+        while (true) {
+            int limit = window.limit();
+            separatorCount = 0;
+            int i = from;
+            for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+                long word = window.getLong(i);
+                long newlines = matches(word, NEWLINES);
+                long hits = separatorCount < SEPARATORS ? newlines | matches(word, SEMICOLONS) : newlines;
+                while (hits != 0) {
+                    long lowest = hits & -hits;
+                    int index = i + (Long.numberOfTrailingZeros(lowest) >>> 3);
+                    if ((newlines & lowest) != 0) {
+                        return index;
+                    }
+                    if (separatorCount < SEPARATORS) {
+                        separators[separatorCount++] = index;
+                    }
+                    hits ^= lowest;
+                }
+            }
+            for (; i < limit; i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    return i;
+                }
+                if (b == ';' && separatorCount < SEPARATORS) {
+                    separators[separatorCount++] = i;
+                }
+            }
+            if (windowStart + limit >= end) {
+                return limit;
+            }
+            if (from == 0) {
+                return -1;
+            }
+            // The line runs past the window: move the window so it starts with this line
+            map(position);
+            from = 0;
+        }
+    }
+
+    // Sets the top bit of every byte of word that equals the byte repeated in pattern, and no other bit
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+    }
+
+    private void map(long offset) throws IOException {
+        long length = Math.min(windowBytes, end - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        window.order(ByteOrder.LITTLE_ENDIAN); // So the first byte of a getLong is its lowest byte
+        windowStart = offset;
+    }
+
+    private void skipOverlongLine(long lineOffset) throws IOException {
+        reportMalformed(lineOffset, "line longer than " + windowBytes + " bytes", 0, Math.min(window.limit(), 80));
+        long offset = windowStart + window.limit();
+        while (offset < end) {
+            map(offset);
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    position = windowStart + i + 1;
+                    return;
+                }
+            }
+            offset = windowStart + window.limit();
+        }
+        position = end;
+    }
+
+    private Dish parseLine(long lineOffset, int start, int contentEnd) {
+        if (separatorCount < SEPARATORS) {
+            reportMalformed(lineOffset, "expected 7 fields separated by ';' but found " + (separatorCount + 1), start, contentEnd);
+            return null;
+        }
+        int[] s = separators;
+        int id;
+        double price;
+        try {
+            id = parseInt(start, s[0]);
+        } catch (NumberFormatException e) {
+            reportMalformed(lineOffset, "invalid id", start, contentEnd);
+            return null;
+        }
+        try {
+            price = parseDouble(s[2] + 1, s[3]);
+        } catch (NumberFormatException e) {
+            reportMalformed(lineOffset, "invalid price", start, contentEnd);
+            return null;
+        }
+        return new Dish(id,
+                decode(s[0] + 1, s[1]),
+                decodeType(s[1] + 1, s[2]),
+                price,
+                decode(s[3] + 1, s[4]),
+                decode(s[4] + 1, s[5]),
+                decode(s[5] + 1, contentEnd));
+    }
+
+    // Same result as Integer.parseInt; plain digits are decoded in place, anything unusual goes through parseInt itself
+    private int parseInt(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 10) {
+            return Integer.parseInt(decode(start, end));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(decode(start, end));
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Id out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Same result as Double.parseDouble. A plain decimal with at most 15 significant digits is decoded in
+     * place: the digits form an exact long, the power of ten is exact, so one division rounds correctly.
+     * Exponents, long mantissas and the like go through Double.parseDouble.
+     */
+    private double parseDouble(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.parseDouble(decode(start, end));
+            }
+        }
+        if (digits == 0 || digits > MAX_FAST_PATH_DIGITS) {
+            return Double.parseDouble(decode(start, end));
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private String decode(int start, int end) {
+        int length = copyToScratch(start, end);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // A menu has a handful of types, so a small hash-slot cache turns almost every type into a shared String
+    private String decodeType(int start, int end) {
+        int length = copyToScratch(start, end);
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + scratch[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (TYPE_CACHE_SLOTS - 1);
+        byte[] key = typeCacheKeys[slot];
+        if (key != null && Arrays.equals(key, 0, key.length, scratch, 0, length)) {
+            return typeCacheValues[slot];
+        }
+        String type = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        typeCacheKeys[slot] = Arrays.copyOf(scratch, length);
+        typeCacheValues[slot] = type;
+        return type;
+    }
+
+    private int copyToScratch(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        window.get(start, scratch, 0, length);
+        return length;
+    }
+
+    private void reportMalformed(long lineOffset, String reason, int start, int contentEnd) {
+        malformedCount++;
+        onMalformed.accept(new MalformedLine(lineOffset, reason, decode(start, contentEnd)));
+    }
+
+    // File offset of the next unread line
+    public long getPosition() {
+        return position;
+    }
+
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        if (ownsChannel) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dish.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.dish.model.Dish;
+
+/**
+ * Writes the semicolon separated TXT format, one {@link Dish#toFileString()} line per dish.
+ */
+public class TextDishWriter implements DishWriter {
+
+    private final BufferedWriter writer;
+
+    public TextDishWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void write(Dish dish) throws IOException {
+        writer.write(dish.toFileString());
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.dish.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A running total, plus how fast it grew over the last minute (six 10-second slices, like {@link Timer}).
+ */
+public class Counter implements CounterMBean {
+
+    private static final int SLICES = 6;
+    private static final long SLICE_NANOS = 10_000_000_000L;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder[] slices = new LongAdder[SLICES];
+    // Read without the slice lock, so the epochs need volatile semantics
+    private final AtomicLongArray sliceEpochs = new AtomicLongArray(SLICES);
+    private final long createdNanos = System.nanoTime();
+
+    Counter() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new LongAdder();
+            sliceEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+        long epoch = Math.floorDiv(System.nanoTime(), SLICE_NANOS);
+        int index = Math.floorMod(epoch, SLICES);
+        if (sliceEpochs.get(index) != epoch) {
+            synchronized (slices[index]) {
+                if (sliceEpochs.get(index) != epoch) {
+                    slices[index].reset();
+                    sliceEpochs.set(index, epoch);
+                }
+            }
+        }
+        slices[index].add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getRatePerSecond() {
+        long oldest = Math.floorDiv(System.nanoTime(), SLICE_NANOS) - SLICES + 1;
+        long recent = 0;
+        for (int i = 0; i < SLICES; i++) {
+            if (sliceEpochs.get(i) >= oldest) {
+                recent += slices[i].sum();
+            }
+        }
+        double windowSeconds = Math.min(SLICES * SLICE_NANOS, System.nanoTime() - createdNanos) / 1e9;
+        return windowSeconds > 0 ? recent / windowSeconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count = %d, rate = %.1f/s", getCount(), getRatePerSecond());
+    }
+}
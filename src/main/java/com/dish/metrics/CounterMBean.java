@@ -0,0 +1,10 @@
+package com.dish.metrics;
+
+/**
+ * What JConsole and VisualVM show for a {@link Counter}.
+ */
+public interface CounterMBean {
+    long getCount();
+    // Increments per second over the last minute
+    double getRatePerSecond();
+}
@@ -0,0 +1,34 @@
+package com.dish.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value read on demand, e.g. a queue length or pool size. Registering the same name again swaps in
+ * the new supplier, so a component that is torn down and rebuilt keeps reporting under the same name.
+ */
+public class Gauge implements GaugeMBean {
+
+    private volatile DoubleSupplier supplier;
+
+    Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    void setSupplier(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN; // A monitoring read must never break the monitored component
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(getValue());
+    }
+}
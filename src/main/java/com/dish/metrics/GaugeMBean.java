@@ -0,0 +1,8 @@
+package com.dish.metrics;
+
+/**
+ * What JConsole and VisualVM show for a {@link Gauge}.
+ */
+public interface GaugeMBean {
+    double getValue();
+}
@@ -0,0 +1,72 @@
+package com.dish.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of nanosecond values, one slice of a {@link Timer}'s rolling window.
+ * <p>
+ * Every power of two is split into 8 equal buckets, so a bucket is never wider than 1/8 of its lower
+ * bound and percentiles come out within 12.5%. Values from 0 to 15 ns get a bucket each, and anything
+ * above ~69 s lands in the last bucket. Recording is one array increment plus a rarely contended max update.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36; // 2^36 ns is about 69 s
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong max = new AtomicLong();
+    volatile long epoch = Long.MIN_VALUE;
+
+    void record(long nanos) {
+        buckets.incrementAndGet(bucketOf(nanos));
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    // Only called under the slice's lock; a recording racing with it may be lost, which is fine for metrics
+    void reset(long newEpoch) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        max.set(0);
+        epoch = newEpoch;
+    }
+
+    void addTo(long[] totals) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            totals[i] += buckets.get(i);
+        }
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < 2 * SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    // Largest value that falls into the bucket
+    static long upperBoundOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.dish.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters, gauges and latency timers.
+ * <p>
+ * Metrics are created on first use and live as long as the process. Each one is also registered as a
+ * platform MBean named {@code com.dish:type=Timer,group=DishDAO,name=getDishById} for the metric
+ * "DishDAO.getDishById", so JConsole and VisualVM show them as a tree and can chart them live.
+ * Start with {@code -Ddish.metrics.jmx=false} to keep them in-process only.
+ */
+public class MetricsRegistry {
+
+    private static final String DOMAIN = "com.dish";
+    private static final boolean PUBLISH_JMX = !"false".equals(System.getProperty("dish.metrics.jmx"));
+
+    private static MetricsRegistry instance = null;
+
+    private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+
+    public Counter counter(String name) {
+        return getOrCreate(name, Counter.class, Counter::new);
+    }
+
+    public Timer timer(String name) {
+        return getOrCreate(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Registers a gauge, or points an existing one with this name at the new supplier.
+     */
+    public Gauge gauge(String name, DoubleSupplier supplier) {
+        Gauge gauge = getOrCreate(name, Gauge.class, () -> new Gauge(supplier));
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    // Every metric by name, sorted, e.g. for a log dump
+    public Map<String, Object> getMetrics() {
+        return new TreeMap<>(metrics);
+    }
+
+    private <T> T getOrCreate(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            Object created = factory.get();
+            metric = metrics.putIfAbsent(name, created);
+            if (metric == null) {
+                metric = created;
+                publish(name, type.getSimpleName(), created);
+            }
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    private void publish(String name, String type, Object metric) {
+        if (!PUBLISH_JMX) {
+            return;
+        }
+        int dot = name.indexOf('.');
+        String group = dot > 0 ? name.substring(0, dot) : "default";
+        String shortName = dot > 0 ? name.substring(dot + 1) : name;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",group=" + quoteIfNeeded(group) + ",name=" + quoteIfNeeded(shortName));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            // Losing the JMX view of one metric is no reason to fail the code that uses it
+            System.err.println("Could not publish metric " + name + " over JMX: " + e.getMessage());
+        }
+    }
+
+    // Quoted values show up in JConsole with their quotes, so only quote names that need it
+    private static String quoteIfNeeded(String value) {
+        return value.matches("[\\w.\\-]+") ? value : ObjectName.quote(value);
+    }
+}
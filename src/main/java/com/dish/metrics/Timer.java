@@ -0,0 +1,155 @@
+package com.dish.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram over a rolling one-minute window, plus a count since start.
+ * <p>
+ * The window is six 10-second slices; a slice is cleared and reused once it is a minute old, so the
+ * percentiles follow the current load instead of averaging over the whole run. Typical use:
+ * <pre>
+ *   long start = System.nanoTime();
+ *   try {
+ *       ...
+ *   } finally {
+ *       timer.recordSince(start);
+ *   }
+ * </pre>
+ */
+public class Timer implements TimerMBean {
+
+    private static final int SLICES = 6;
+    private static final long SLICE_NANOS = 10_000_000_000L;
+
+    private final LongAdder count = new LongAdder();
+    private final LatencyHistogram[] slices = new LatencyHistogram[SLICES];
+    private final long createdNanos = System.nanoTime();
+
+    Timer() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new LatencyHistogram();
+        }
+    }
+
+    public void recordSince(long startNanos) {
+        long now = System.nanoTime();
+        record(now - startNanos, now);
+    }
+
+    public void record(long nanos) {
+        record(nanos, System.nanoTime());
+    }
+
+    private void record(long nanos, long now) {
+        count.increment();
+        long epoch = Math.floorDiv(now, SLICE_NANOS);
+        LatencyHistogram slice = slices[Math.floorMod(epoch, SLICES)];
+        if (slice.epoch != epoch) {
+            synchronized (slice) {
+                if (slice.epoch != epoch) {
+                    slice.reset(epoch);
+                }
+            }
+        }
+        slice.record(Math.max(0, nanos));
+    }
+
+    // --- Window snapshot ---
+
+    private long[] recentBuckets() {
+        long[] totals = new long[LatencyHistogram.BUCKET_COUNT];
+        long oldest = Math.floorDiv(System.nanoTime(), SLICE_NANOS) - SLICES + 1;
+        for (LatencyHistogram slice : slices) {
+            if (slice.epoch >= oldest) {
+                slice.addTo(totals);
+            }
+        }
+        return totals;
+    }
+
+    private double percentileMillis(double quantile) {
+        long[] buckets = recentBuckets();
+        long total = 0;
+        for (long bucket : buckets) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                // The bucket's upper bound, but never more than the largest value actually seen
+                return Math.min(LatencyHistogram.upperBoundOf(i), recentMaxNanos()) / 1e6;
+            }
+        }
+        return recentMaxNanos() / 1e6;
+    }
+
+    private long recentMaxNanos() {
+        long oldest = Math.floorDiv(System.nanoTime(), SLICE_NANOS) - SLICES + 1;
+        long max = 0;
+        for (LatencyHistogram slice : slices) {
+            if (slice.epoch >= oldest) {
+                max = Math.max(max, slice.getMax());
+            }
+        }
+        return max;
+    }
+
+    // --- TimerMBean ---
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getRecentCount() {
+        long total = 0;
+        for (long bucket : recentBuckets()) {
+            total += bucket;
+        }
+        return total;
+    }
+
+    @Override
+    public double getRatePerSecond() {
+        double windowSeconds = Math.min(SLICES * SLICE_NANOS, System.nanoTime() - createdNanos) / 1e9;
+        return windowSeconds > 0 ? getRecentCount() / windowSeconds : 0;
+    }
+
+    // Approximate: each value counts as the midpoint of its bucket
+    @Override
+    public double getMeanMillis() {
+        long[] buckets = recentBuckets();
+        double sum = 0;
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                long lower = i == 0 ? 0 : LatencyHistogram.upperBoundOf(i - 1) + 1;
+                sum += buckets[i] * (lower + LatencyHistogram.upperBoundOf(i)) / 2.0;
+                total += buckets[i];
+            }
+        }
+        return total == 0 ? 0 : sum / total / 1e6;
+    }
+
+    @Override public double getP50Millis() { return percentileMillis(0.50); }
+    @Override public double getP90Millis() { return percentileMillis(0.90); }
+    @Override public double getP99Millis() { return percentileMillis(0.99); }
+    @Override public double getP999Millis() { return percentileMillis(0.999); }
+
+    @Override
+    public double getMaxMillis() {
+        return recentMaxNanos() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count = %d, p50 = %.2f ms, p99 = %.2f ms, max = %.2f ms",
+                getCount(), getP50Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,16 @@
+package com.dish.metrics;
+
+/**
+ * What JConsole and VisualVM show for a {@link Timer}. Everything except the count covers the last minute.
+ */
+public interface TimerMBean {
+    long getCount();
+    long getRecentCount();
+    double getRatePerSecond();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP90Millis();
+    double getP99Millis();
+    double getP999Millis();
+    double getMaxMillis();
+}
@@ -30,6 +30,11 @@ public class Dish {
         this.photoPath = photoPath;
     }
 
+    // Copy constructor, for handing out copies that callers can modify freely
+    public Dish(Dish other) {
+        this(other.id, other.name, other.type, other.price, other.ingredients, other.introduction, other.photoPath);
+    }
+
     // Getters
     public int getId() { return id; }
     public String getName() { return name; }
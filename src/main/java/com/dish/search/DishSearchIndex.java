@@ -0,0 +1,322 @@
+package com.dish.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import com.dish.dao.DishChangeListener;
+import com.dish.dao.DishDAO;
+import com.dish.model.Dish;
+
+/**
+ * In-memory inverted index over dish name, type, ingredients and introduction.
+ * <p>
+ * Each normalized token maps to a sorted list of dish ids. Queries are lists of words that must all match;
+ * "OR" between words starts an alternative group, and a word ending in '*' matches as a prefix.
+ * The last word of the query is always matched as a prefix, the same way the database search does it.
+ * <p>
+ * Register it with {@link DishDAO#addChangeListener} to keep it in step with successful writes.
+ */
+public class DishSearchIndex implements DishChangeListener {
+
+    // Sorted so prefix queries are a subMap() range over the dictionary
+    private final TreeMap<String, Postings> postingsByToken = new TreeMap<>();
+    // The tokens each dish was indexed under, needed to take it out again on update or delete
+    private final Map<Integer, String[]> tokensByDish = new HashMap<>();
+    // Every indexed id in order; a dish's position here is its row in the id-ordered table
+    private final Postings allIds = new Postings(1024);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+    // Ids written while a build streams the table; the stream's rows for them are older, so they are skipped
+    private Set<Integer> changedDuringBuild = null;
+
+    /**
+     * Indexes the whole table in one streaming pass. The stream is a snapshot, so writes that happen
+     * meanwhile are applied as they arrive and the stream's older copies of those dishes are ignored.
+     */
+    public void build(DishDAO dishDAO) {
+        Consumer<Dish> builder = beginBuild();
+        boolean complete = false;
+        try {
+            complete = dishDAO.streamAllDishes(builder) >= 0;
+        } finally {
+            finishBuild(complete);
+        }
+    }
+
+    /**
+     * Starts a build fed by the caller, e.g. from a stream shared with other consumers. Every streamed dish goes
+     * to the returned consumer; {@link #finishBuild} must follow, also when the stream fails.
+     */
+    public Consumer<Dish> beginBuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return this::indexStreamed;
+    }
+
+    public void finishBuild(boolean complete) {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (complete) {
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Dish dish) {
+        String[] tokens = tokenize(dish.getName(), dish.getType(), dish.getIngredients(), dish.getIntroduction());
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(dish.getId());
+            }
+            indexLocked(dish.getId(), tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexStreamed(Dish dish) {
+        String[] tokens = tokenize(dish.getName(), dish.getType(), dish.getIngredients(), dish.getIntroduction());
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringBuild.contains(dish.getId())) {
+                indexLocked(dish.getId(), tokens);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(int dishId, String[] tokens) {
+        removeLocked(dishId);
+        for (String token : tokens) {
+            postingsByToken.computeIfAbsent(token, t -> new Postings()).add(dishId);
+        }
+        tokensByDish.put(dishId, tokens);
+        allIds.add(dishId);
+    }
+
+    public void remove(int dishId) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(dishId);
+            }
+            removeLocked(dishId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int dishId) {
+        String[] tokens = tokensByDish.remove(dishId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Postings postings = postingsByToken.get(token);
+            if (postings != null && postings.remove(dishId) && postings.isEmpty()) {
+                postingsByToken.remove(token);
+            }
+        }
+        allIds.remove(dishId);
+    }
+
+    // --- DishChangeListener ---
+
+    @Override
+    public void dishAdded(Dish dish) {
+        index(dish);
+    }
+
+    @Override
+    public void dishUpdated(Dish dish) {
+        index(dish);
+    }
+
+    @Override
+    public void dishDeleted(int dishId) {
+        remove(dishId);
+    }
+
+    // --- Queries ---
+
+    /**
+     * Returns the ids of matching dishes in ascending order. A blank query matches nothing.
+     */
+    public int[] search(String query) {
+        List<List<String>> groups = parseQuery(query);
+        lock.readLock().lock();
+        try {
+            int[] result = new int[0];
+            for (List<String> group : groups) {
+                result = Postings.union(result, matchAll(group));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #search(String)}, but answers with positions in the full id-ordered dish list,
+     * which are the model rows of a table that lists every dish by id.
+     */
+    public BitSet searchRows(String query) {
+        int[] ids = search(query);
+        BitSet rows = new BitSet();
+        lock.readLock().lock();
+        try {
+            for (int id : ids) {
+                int row = allIds.indexOf(id);
+                if (row >= 0) {
+                    rows.set(row);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rows;
+    }
+
+    private int[] matchAll(List<String> terms) {
+        int[] result = null;
+        for (String term : terms) {
+            int[] matches = term.endsWith("*")
+                    ? matchPrefix(term.substring(0, term.length() - 1))
+                    : matchExact(term);
+            result = (result == null) ? matches : Postings.intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? new int[0] : result;
+    }
+
+    private int[] matchExact(String token) {
+        Postings postings = postingsByToken.get(token);
+        return postings == null ? new int[0] : postings.toArray();
+    }
+
+    private int[] matchPrefix(String prefix) {
+        if (prefix.isEmpty()) {
+            return new int[0];
+        }
+        SortedMap<String, Postings> range = postingsByToken.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.size() == 1) {
+            return range.values().iterator().next().toArray();
+        }
+        // Many tokens can share a prefix; OR-ing them into one bitmap beats merging the arrays pairwise
+        BitSet union = new BitSet();
+        for (Postings postings : range.values()) {
+            postings.addTo(union);
+        }
+        return union.stream().toArray();
+    }
+
+    public int getDishCount() {
+        lock.readLock().lock();
+        try {
+            return allIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTokenCount() {
+        lock.readLock().lock();
+        try {
+            return postingsByToken.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Tokenizing ---
+
+    private static List<List<String>> parseQuery(String query) {
+        List<List<String>> groups = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return groups;
+        }
+        List<String> current = new ArrayList<>();
+        String[] words = query.trim().split("\\s+");
+        for (int w = 0; w < words.length; w++) {
+            if (words[w].equals("OR")) {
+                if (!current.isEmpty()) {
+                    groups.add(current);
+                    current = new ArrayList<>();
+                }
+                continue;
+            }
+            boolean prefix = words[w].endsWith("*") || w == words.length - 1;
+            String[] tokens = tokenize(words[w]);
+            for (int t = 0; t < tokens.length; t++) {
+                // Only the end of a word can be incomplete, so only its last token becomes a prefix
+                current.add(prefix && t == tokens.length - 1 ? tokens[t] + "*" : tokens[t]);
+            }
+        }
+        if (!current.isEmpty()) {
+            groups.add(current);
+        }
+        return groups;
+    }
+
+    /**
+     * Lower-cases and splits text into runs of letters and digits. Ideographic characters
+     * (Chinese dish names, for example) are indexed one character per token, since they are not space separated.
+     */
+    static String[] tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String lower = text.toLowerCase(Locale.ROOT);
+            for (int i = 0; i < lower.length(); ) {
+                int cp = lower.codePointAt(i);
+                i += Character.charCount(cp);
+                if (Character.isIdeographic(cp)) {
+                    flushToken(current, tokens);
+                    tokens.add(new String(Character.toChars(cp)));
+                } else if (Character.isLetterOrDigit(cp)) {
+                    current.appendCodePoint(cp);
+                } else {
+                    flushToken(current, tokens);
+                }
+            }
+            flushToken(current, tokens);
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static void flushToken(StringBuilder current, Set<String> tokens) {
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+            current.setLength(0);
+        }
+    }
+}
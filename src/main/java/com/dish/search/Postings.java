@@ -0,0 +1,115 @@
+package com.dish.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sorted, duplicate-free list of dish ids backed by a plain int array.
+ * Ids mostly arrive in increasing order, which makes add() an append.
+ */
+class Postings {
+
+    private int[] ids;
+    private int size;
+
+    Postings() {
+        this(4);
+    }
+
+    Postings(int initialCapacity) {
+        ids = new int[Math.max(1, initialCapacity)];
+    }
+
+    void add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    // Position of id in the list, or -1 if it is not there
+    int indexOf(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        return pos >= 0 ? pos : -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void addTo(BitSet bits) {
+        for (int i = 0; i < size; i++) {
+            bits.set(ids[i]);
+        }
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(capacity, ids.length + (ids.length >> 1) + 1));
+        }
+    }
+
+    // --- Set operations over sorted id arrays ---
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,65 @@
+package com.dish.ui;
+
+import com.dish.io.Compression;
+import com.dish.io.DishFileFormat;
+
+import javax.swing.filechooser.FileFilter;
+import java.io.File;
+
+/**
+ * File chooser filter for one format and compression pair such as "*.txt.gz", or for every dish file.
+ * FileNameExtensionFilter only looks at the last extension, so it can't tell "*.txt.gz" from "*.dishcat.gz".
+ */
+public class DishFileFilter extends FileFilter {
+
+    private final DishFileFormat format; // null matches every format and compression
+    private final Compression compression;
+    private final String description;
+
+    private DishFileFilter(DishFileFormat format, Compression compression, String description) {
+        this.format = format;
+        this.compression = compression;
+        this.description = description;
+    }
+
+    public static DishFileFilter of(DishFileFormat format, Compression compression) {
+        // "Text files (*.txt)" -> "Text files (*.txt.gz, gzip)"
+        String description = compression == Compression.NONE ? format.getDescription()
+                : format.getDescription().replace(")", compression.getSuffix() + ", " + compression.getDescription() + ")");
+        return new DishFileFilter(format, compression, description);
+    }
+
+    public static DishFileFilter anyDishFile() {
+        return new DishFileFilter(null, null, "All dish files");
+    }
+
+    @Override
+    public boolean accept(File file) {
+        if (file.isDirectory()) {
+            return true;
+        }
+        if (format == null) {
+            for (DishFileFormat candidate : DishFileFormat.values()) {
+                if (candidate.matches(file)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return format.matches(file) && Compression.forFile(file) == compression;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    // Null for the catch-all filter
+    public DishFileFormat getFormat() { return format; }
+    public Compression getCompression() { return compression; }
+
+    // What to append to a typed file name that has no extension, e.g. ".txt.gz"
+    public String getSuffix() {
+        return "." + format.getExtension() + compression.getSuffix();
+    }
+}
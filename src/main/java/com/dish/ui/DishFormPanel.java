@@ -1,20 +1,21 @@
 package com.dish.ui;
 
-import com.dish.dao.DishDAO;
+import com.dish.dao.AsyncDishDAO;
+import com.dish.dao.DaoExecutor;
+import com.dish.image.ImageDecodeService;
 import com.dish.model.Dish;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class DishFormPanel extends JPanel {
 
-    private final DishDAO dishDAO;
+    private final AsyncDishDAO dishDAO;
     private final MenuManager mainFrame;
     private final Dish dishToEdit; // Null if in "Add" mode
     private final boolean isEditMode;
@@ -28,10 +29,13 @@ public class DishFormPanel extends JPanel {
     private final JTextField photoPathField = new JTextField(25);
     private final JLabel imagePreviewLabel = new JLabel("No Preview", SwingConstants.CENTER);
 
+    private JButton saveButton;
+    private ImageDecodeService.DecodeTask previewTask = null;
+
     private static final int PREVIEW_IMAGE_WIDTH = 100;
     private static final int PREVIEW_IMAGE_HEIGHT = 100;
 
-    public DishFormPanel(DishDAO dishDAO, MenuManager mainFrame, Dish dishToEdit) {
+    public DishFormPanel(AsyncDishDAO dishDAO, MenuManager mainFrame, Dish dishToEdit) {
         this.dishDAO = dishDAO;
         this.mainFrame = mainFrame;
         this.dishToEdit = dishToEdit;
@@ -106,7 +110,7 @@ public class DishFormPanel extends JPanel {
         resetGbc(gbc);
 
         // --- Action Buttons ---
-        JButton saveButton = new JButton(isEditMode ? "Save Changes" : "Add Dish");
+        saveButton = new JButton(isEditMode ? "Save Changes" : "Add Dish");
         saveButton.addActionListener(e -> saveDish());
 
         JButton cancelButton = new JButton("Cancel");
@@ -171,16 +175,33 @@ public class DishFormPanel extends JPanel {
     }
 
     private void updateImagePreview(String path) {
+        if (previewTask != null) {
+            previewTask.cancel(); // A newer photo was picked before the previous one finished decoding
+            previewTask = null;
+        }
         if (path != null && !path.isEmpty()) {
-            ImageIcon previewIcon = loadImageIconFromFile(path, PREVIEW_IMAGE_WIDTH, PREVIEW_IMAGE_HEIGHT);
-            imagePreviewLabel.setIcon(previewIcon);
-            imagePreviewLabel.setText(previewIcon == null ? "Preview N/A" : null);
+            ImageDecodeService decoder = ImageDecodeService.getInstance();
+            BufferedImage cached = decoder.getIfCached(path, PREVIEW_IMAGE_WIDTH, PREVIEW_IMAGE_HEIGHT, true);
+            if (cached != null) {
+                showPreview(cached);
+                return;
+            }
+            imagePreviewLabel.setIcon(null);
+            imagePreviewLabel.setText("Loading...");
+            // Maintain aspect ratio while scaling
+            previewTask = decoder.submit(path, PREVIEW_IMAGE_WIDTH, PREVIEW_IMAGE_HEIGHT, true,
+                    ImageDecodeService.PRIORITY_VISIBLE, this::showPreview);
         } else {
             imagePreviewLabel.setIcon(null);
             imagePreviewLabel.setText("No Preview");
         }
     }
 
+    private void showPreview(BufferedImage image) {
+        imagePreviewLabel.setIcon(image != null ? new ImageIcon(image) : null);
+        imagePreviewLabel.setText(image == null ? "Preview N/A" : null);
+    }
+
     private void saveDish() {
         // Get all data from fields and validate it
         String name = nameField.getText().trim();
@@ -203,8 +224,8 @@ public class DishFormPanel extends JPanel {
             return;
         }
 
-        // Save to database via DAO
-        boolean success;
+        // Save to database via DAO, off the EDT; the button stays disabled so a slow save can't be submitted twice
+        CompletableFuture<Boolean> save;
         String successMessage;
         if (isEditMode) {
             dishToEdit.setName(name);
@@ -213,48 +234,24 @@ public class DishFormPanel extends JPanel {
             dishToEdit.setIngredients(ingredients);
             dishToEdit.setIntroduction(intro);
             dishToEdit.setPhotoPath(photoPath);
-            success = dishDAO.updateDish(dishToEdit);
+            save = dishDAO.updateDish(dishToEdit);
             successMessage = "Dish '" + name + "' updated successfully!";
         } else {
             Dish newDish = new Dish(name, type, price, ingredients, intro, photoPath);
-            success = dishDAO.addDish(newDish);
+            save = dishDAO.addDish(newDish);
             successMessage = "Dish '" + name + "' added successfully!";
         }
 
-        if (success) {
-            JOptionPane.showMessageDialog(this, successMessage, "Success", JOptionPane.INFORMATION_MESSAGE);
-            mainFrame.showSearchDishPanel(); // Go back to the table view
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to save dish to the database.", "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private ImageIcon loadImageIconFromFile(String filePath, int width, int height) {
-        if (filePath == null || filePath.trim().isEmpty()) {
-            return null;
-        }
-        try {
-            File imgFile = new File(filePath);
-            if (!imgFile.exists() || !imgFile.isFile()) {
-                return null;
-            }
-            BufferedImage img = ImageIO.read(imgFile);
-            if (img == null) {
-                return null;
+        saveButton.setEnabled(false);
+        save.whenCompleteAsync((success, error) -> {
+            saveButton.setEnabled(true);
+            if (error == null && success) {
+                JOptionPane.showMessageDialog(this, successMessage, "Success", JOptionPane.INFORMATION_MESSAGE);
+                mainFrame.showSearchDishPanel(); // Go back to the table view
+            } else {
+                String detail = error != null ? ": " + DaoExecutor.describeFailure(error) : ".";
+                JOptionPane.showMessageDialog(this, "Failed to save dish to the database" + detail, "Database Error", JOptionPane.ERROR_MESSAGE);
             }
-
-            // Maintain aspect ratio while scaling
-            double originalWidth = img.getWidth();
-            double originalHeight = img.getHeight();
-            double ratio = Math.min((double) width / originalWidth, (double) height / originalHeight);
-            int newWidth = (int) (originalWidth * ratio);
-            int newHeight = (int) (originalHeight * ratio);
-
-            Image scaledImg = img.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-            return new ImageIcon(scaledImg);
-        } catch (IOException e) {
-            System.err.println("Error loading image from file: " + filePath + " - " + e.getMessage());
-            return null;
-        }
+        }, SwingUtilities::invokeLater);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.dish.ui;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One event that kept the EDT busy past the {@link EdtWatchdog} threshold: what it was, how long it took,
+ * and what the EDT was doing while it ran, sampled while the stall was still in progress.
+ */
+public class EdtStall {
+
+    private final Instant startedAt;
+    private final long durationNanos;
+    private final String event;
+    private final List<Sample> samples;
+
+    EdtStall(Instant startedAt, long durationNanos, String event, List<Sample> samples) {
+        this.startedAt = startedAt;
+        this.durationNanos = durationNanos;
+        this.event = event;
+        this.samples = Collections.unmodifiableList(new ArrayList<>(samples));
+    }
+
+    public Instant getStartedAt() { return startedAt; }
+    public long getDurationNanos() { return durationNanos; }
+    public double getDurationMillis() { return durationNanos / 1e6; }
+    public String getEvent() { return event; }
+    // Empty when the event ended before the watchdog got to look at it
+    public List<Sample> getSamples() { return samples; }
+
+    /**
+     * Multi-line report with every sampled stack; runs of identical stacks are printed once.
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s EDT stall of %.0f ms in %s%n", startedAt, getDurationMillis(), event));
+        for (int i = 0; i < samples.size(); ) {
+            Sample sample = samples.get(i);
+            int same = 1;
+            while (i + same < samples.size() && Arrays.equals(samples.get(i + same).stack, sample.stack)) {
+                same++;
+            }
+            sb.append(String.format("  at +%d ms%s:%n", sample.offsetMillis, same > 1 ? " (same stack for " + same + " samples)" : ""));
+            for (StackTraceElement frame : sample.stack) {
+                sb.append("      at ").append(frame).append(System.lineSeparator());
+            }
+            i += same;
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EdtStall { %.0f ms in %s, %d samples }", getDurationMillis(), event, samples.size());
+    }
+
+    /**
+     * The EDT's stack some time into the stall.
+     */
+    public static class Sample {
+        private final long offsetMillis;
+        private final StackTraceElement[] stack;
+
+        Sample(long offsetMillis, StackTraceElement[] stack) {
+            this.offsetMillis = offsetMillis;
+            this.stack = stack;
+        }
+
+        public long getOffsetMillis() { return offsetMillis; }
+        public StackTraceElement[] getStack() { return stack.clone(); }
+    }
+}
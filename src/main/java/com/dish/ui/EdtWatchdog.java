@@ -0,0 +1,271 @@
+package com.dish.ui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+
+/**
+ * Watches the event dispatch thread and collects evidence whenever the UI freezes.
+ * <p>
+ * It replaces the system event queue with one that times every dispatched event (metric "EDT.dispatch"),
+ * and a background thread posts a no-op event every 100 ms to measure how long events wait before they run
+ * ("EDT.latency"). When an event is still running after the stall threshold, the background thread samples
+ * the EDT's stack every quarter threshold until it finishes. Each stall is recorded in "EDT.stall", kept in
+ * {@link #getRecentStalls()}, and with {@code -Ddish.edt.stallLog=<file>} also appended to that file.
+ * <p>
+ * Settings: {@code -Ddish.edt.stallThresholdMs} (default 200), {@code -Ddish.edt.watchdog=false} turns it off.
+ * <p>
+ * An event that opens a modal dialog keeps running until the dialog closes, while the dialog dispatches
+ * events of its own. The time spent in the dialog's event loop is left out of that event's dispatch time and
+ * stall accounting, so only the work it does itself before and after the dialog counts; the events dispatched
+ * inside it are timed as usual.
+ */
+public class EdtWatchdog {
+
+    private static final boolean ENABLED = !"false".equals(System.getProperty("dish.edt.watchdog"));
+    private static final long STALL_THRESHOLD_MS = Long.getLong("dish.edt.stallThresholdMs", 200);
+    private static final String STALL_LOG = System.getProperty("dish.edt.stallLog");
+    private static final long HEARTBEAT_INTERVAL_MS = 100;
+    private static final int MAX_SAMPLES_PER_STALL = 20;
+    private static final int MAX_RECENT_STALLS = 50;
+
+    private static final Timer DISPATCH_TIMER = MetricsRegistry.getInstance().timer("EDT.dispatch");
+    private static final Timer LATENCY_TIMER = MetricsRegistry.getInstance().timer("EDT.latency");
+    private static final Timer STALL_TIMER = MetricsRegistry.getInstance().timer("EDT.stall");
+
+    private static EdtWatchdog instance = null;
+
+    private final long thresholdNanos;
+    private final Path logFile;
+    private final ScheduledExecutorService scheduler;
+    private final Deque<EdtStall> recentStalls = new ArrayDeque<>();
+
+    // The innermost event being dispatched; only the EDT writes it
+    private volatile Dispatch current = null;
+    private volatile Thread edt = null;
+    private volatile boolean heartbeatPending = false;
+
+    private EdtWatchdog(long thresholdMillis, Path logFile) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.logFile = logFile;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts watching, unless disabled with {@code -Ddish.edt.watchdog=false}. Call once at startup;
+     * later calls return the running instance. Returns null when disabled.
+     */
+    public static synchronized EdtWatchdog install() {
+        if (instance == null && ENABLED) {
+            instance = new EdtWatchdog(STALL_THRESHOLD_MS, STALL_LOG == null ? null : Paths.get(STALL_LOG));
+            instance.start();
+        }
+        return instance;
+    }
+
+    public static synchronized EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    private void start() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimingEventQueue());
+        long checkMillis = Math.max(10, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+        scheduler.scheduleWithFixedDelay(this::checkForStall, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::postHeartbeat, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The most recent stalls, oldest first.
+     */
+    public List<EdtStall> getRecentStalls() {
+        synchronized (recentStalls) {
+            return new ArrayList<>(recentStalls);
+        }
+    }
+
+    // --- Watchdog thread ---
+
+    // One heartbeat in flight at a time, so a frozen EDT does not pile them up. Without a window on screen
+    // there is nothing to measure, and the heartbeats would keep AWT from shutting down on its own.
+    private void postHeartbeat() {
+        if (heartbeatPending || !anyWindowDisplayable()) {
+            return;
+        }
+        heartbeatPending = true;
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            LATENCY_TIMER.recordSince(posted);
+            heartbeatPending = false;
+        });
+    }
+
+    private static boolean anyWindowDisplayable() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkForStall() {
+        Dispatch dispatch = current;
+        Thread thread = edt;
+        if (dispatch == null || thread == null || dispatch.pumping) {
+            return;
+        }
+        long elapsed = dispatch.ownNanos(System.nanoTime());
+        if (elapsed >= thresholdNanos) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            // The event may have finished while the stack was taken, in which case the stack belongs to something else
+            if (current == dispatch) {
+                dispatch.addSample(new EdtStall.Sample(TimeUnit.NANOSECONDS.toMillis(elapsed), stack));
+            }
+        }
+    }
+
+    private void stallEnded(EdtStall stall) {
+        synchronized (recentStalls) {
+            if (recentStalls.size() == MAX_RECENT_STALLS) {
+                recentStalls.removeFirst();
+            }
+            recentStalls.addLast(stall);
+        }
+        if (logFile != null) {
+            // File I/O belongs on the watchdog thread, not on the EDT that just stalled
+            scheduler.execute(() -> appendToLog(stall));
+        }
+    }
+
+    private void appendToLog(EdtStall stall) {
+        try (Writer writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(stall.toReport());
+            writer.write(System.lineSeparator());
+        } catch (IOException e) {
+            System.err.println("Could not write EDT stall to " + logFile + ": " + e.getMessage());
+        }
+    }
+
+    // --- EDT side ---
+
+    private static class Dispatch {
+        final Instant startedAt = Instant.now();
+        private final List<EdtStall.Sample> samples = new ArrayList<>();
+        // Set while a modal loop inside this event waits for or dispatches events; that time is not the event's own
+        volatile boolean pumping = false;
+        private volatile long resumedNanos;
+        private volatile long pausedNanos = 0;
+
+        Dispatch(long startNanos) {
+            this.resumedNanos = startNanos;
+        }
+
+        void pause(long now) {
+            if (!pumping) {
+                pausedNanos += now - resumedNanos;
+                pumping = true;
+            }
+        }
+
+        void resume(long now) {
+            resumedNanos = now;
+            pumping = false;
+        }
+
+        // Time spent running this event's own code, leaving out any nested event loop
+        long ownNanos(long now) {
+            return pumping ? pausedNanos : pausedNanos + now - resumedNanos;
+        }
+
+        synchronized void addSample(EdtStall.Sample sample) {
+            if (samples.size() < MAX_SAMPLES_PER_STALL) {
+                samples.add(sample);
+            }
+        }
+
+        synchronized List<EdtStall.Sample> getSamples() {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    private class TimingEventQueue extends EventQueue {
+        // Only a nested loop asks for events while one is being dispatched; its waiting is not the event's work
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            Dispatch dispatch = current;
+            if (dispatch == null) {
+                return super.getNextEvent();
+            }
+            dispatch.pause(System.nanoTime());
+            try {
+                return super.getNextEvent();
+            } finally {
+                dispatch.resume(System.nanoTime());
+            }
+        }
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long start = System.nanoTime();
+            Dispatch outer = current;
+            if (outer != null) {
+                outer.pause(start);
+            } else {
+                edt = Thread.currentThread();
+            }
+            Dispatch dispatch = new Dispatch(start);
+            current = dispatch;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                current = outer;
+                long duration = dispatch.ownNanos(end);
+                if (outer != null) {
+                    outer.resume(end);
+                }
+                DISPATCH_TIMER.record(duration);
+                if (duration >= thresholdNanos) {
+                    STALL_TIMER.record(duration);
+                    stallEnded(new EdtStall(dispatch.startedAt, duration, describe(event), dispatch.getSamples()));
+                }
+            }
+        }
+    }
+
+    // "ActionEvent[ACTION_PERFORMED,cmd=Delete,...] on JButton", capped so a long paramString cannot flood the log
+    private static String describe(AWTEvent event) {
+        String description = event.getClass().getSimpleName() + "[" + event.paramString() + "]";
+        Object source = event.getSource();
+        if (source != null) {
+            description += " on " + source.getClass().getSimpleName();
+        }
+        return description.length() > 200 ? description.substring(0, 197) + "..." : description;
+    }
+}
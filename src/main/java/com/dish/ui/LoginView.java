@@ -28,6 +28,8 @@ import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.LineBorder; // Added
 
+import com.dish.dao.AsyncUserDAO;
+import com.dish.dao.DaoExecutor;
 import com.dish.dao.UserDAO;
 
 public class LoginView extends JFrame {
@@ -36,7 +38,7 @@ public class LoginView extends JFrame {
     private JPasswordField passwordField;
     private JButton loginButton; // Declare loginButton as a class member
 
-    private final UserDAO userDAO;
+    private final AsyncUserDAO userDAO;
 
     private static final String USERNAME_PLACEHOLDER = "Enter your username";
     private static final String PASSWORD_PLACEHOLDER = "Enter your password";
@@ -61,7 +63,7 @@ public class LoginView extends JFrame {
 
     public LoginView() {
         super("Dish Information Management");
-        this.userDAO = new UserDAO(); // Initialize the UserDAO
+        this.userDAO = new AsyncUserDAO(new UserDAO(), DaoExecutor.getInstance()); // Initialize the UserDAO
         initializeUI();
     }
 
@@ -375,14 +377,24 @@ public class LoginView extends JFrame {
             return;
         }
 
-        if (userDAO.validateUser(username, password)) {
-            this.dispose(); // Close the login window
-            SwingUtilities.invokeLater(() -> new MenuManager().setVisible(true)); // Open the MenuManager window
-        } else {
-            JOptionPane.showMessageDialog(this,
-                    "Invalid username or password.",
-                    "Login Failed",
-                    JOptionPane.ERROR_MESSAGE);
-        }
+        // The check runs off the EDT; the button stays disabled until the answer is back
+        loginButton.setEnabled(false);
+        userDAO.validateUser(username, password).whenCompleteAsync((valid, error) -> {
+            loginButton.setEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this,
+                        "Could not reach the database: " + DaoExecutor.describeFailure(error),
+                        "Login Failed",
+                        JOptionPane.ERROR_MESSAGE);
+            } else if (valid) {
+                this.dispose(); // Close the login window
+                SwingUtilities.invokeLater(() -> new MenuManager().setVisible(true)); // Open the MenuManager window
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Invalid username or password.",
+                        "Login Failed",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }, SwingUtilities::invokeLater);
     }
 }
\ No newline at end of file
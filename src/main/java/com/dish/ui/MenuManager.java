@@ -1,20 +1,36 @@
 package com.dish.ui;
 
-import com.dish.dao.DishDAO;
+import com.dish.catalog.DishCatalog;
+import com.dish.dao.AsyncDishDAO;
+import com.dish.dao.CachingDishDAO;
+import com.dish.dao.DaoExecutor;
 import com.dish.database.DatabaseConnection;
+import com.dish.image.ThumbnailDecoder;
+import com.dish.io.Compression;
+import com.dish.io.DishExporter;
+import com.dish.io.DishFileFormat;
+import com.dish.io.ExportResult;
+import com.dish.io.ImportMode;
+import com.dish.io.ImportPipeline;
+import com.dish.io.ImportProgress;
+import com.dish.io.ImportResult;
+import com.dish.io.MalformedLine;
 import com.dish.model.Dish;
+import com.dish.search.DishSearchIndex;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MenuManager extends JFrame {
 
@@ -24,18 +40,31 @@ public class MenuManager extends JFrame {
     private static final String ICON_PATH = "/images/logo_white.png";
     private static final Font DEFAULT_FONT = new Font("Arial", Font.PLAIN, 14);
     private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final int PROGRESS_REFRESH_MS = 250;
+    private static final int DISH_CACHE_MAX_ENTRIES = Integer.getInteger("dish.cache.maxEntries", 5000);
+    private static final long DISH_CACHE_TTL_MS = Long.getLong("dish.cache.ttlMs", 0);
 
     // --- Core Components ---
     private final JPanel mainContentPanel;
-    private final DishDAO dishDAO;
+    private final CachingDishDAO dishDAO;
+    private final AsyncDishDAO asyncDishDAO; // What the panels use, so no DAO call runs on the EDT
+    private final DishSearchIndex searchIndex;
+    private final DishCatalog catalog;
 
     // --- Panels managed by CardLayout ---
     private final WelcomePanel welcomePanel;
     private final SearchDishPanel searchDishPanel;
     // DishFormPanel is created on-the-fly since it can be for adding or editing specific dishes
 
+    private boolean matchImportsById = false; // Last choice in the import dialog
+
     public MenuManager() {
-        this.dishDAO = new DishDAO();
+        this.dishDAO = new CachingDishDAO(DISH_CACHE_MAX_ENTRIES, DISH_CACHE_TTL_MS);
+        this.asyncDishDAO = new AsyncDishDAO(dishDAO, DaoExecutor.getInstance());
+        this.searchIndex = new DishSearchIndex();
+        this.catalog = new DishCatalog();
+        dishDAO.addChangeListener(searchIndex);
+        dishDAO.addChangeListener(catalog);
 
         setTitle("Dish Information Management");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -63,7 +92,25 @@ public class MenuManager extends JFrame {
 
         // --- Create Panel Instances ---
         welcomePanel = new WelcomePanel();
-        searchDishPanel = new SearchDishPanel(dishDAO, this);
+        searchDishPanel = new SearchDishPanel(asyncDishDAO, searchIndex, catalog, this);
+
+        // Searches go to the database until the local index has caught up with the table.
+        // One scan of the table feeds both the index and the catalog.
+        // Started after the panel exists, since the panel is told when its facets can be used.
+        Thread indexBuilder = new Thread(() -> {
+            Consumer<Dish> indexFeed = searchIndex.beginBuild();
+            Consumer<Dish> catalogFeed = catalog.beginLoad();
+            boolean complete = false;
+            try {
+                complete = dishDAO.streamAllDishes(indexFeed.andThen(catalogFeed)) >= 0;
+            } finally {
+                searchIndex.finishBuild(complete);
+                catalog.finishLoad(complete);
+            }
+            SwingUtilities.invokeLater(searchDishPanel::refreshFacets);
+        }, "dish-search-index");
+        indexBuilder.setDaemon(true);
+        indexBuilder.start();
 
         // Add the primary panels to the CardLayout with unique names
         mainContentPanel.add(welcomePanel, "WELCOME");
@@ -83,33 +130,37 @@ public class MenuManager extends JFrame {
     }
 
     public void showSearchDishPanel() {
-        // Always refresh the table data when switching to this panel
-        searchDishPanel.refreshTableData();
+        // No reload needed: the table applies DAO change events row by row as they happen
         CardLayout cl = (CardLayout) (mainContentPanel.getLayout());
         cl.show(mainContentPanel, "SEARCH");
     }
 
     public void showAddDishForm() {
         // Create a new form panel for adding a dish (dish is null)
-        DishFormPanel addForm = new DishFormPanel(dishDAO, this, null);
+        DishFormPanel addForm = new DishFormPanel(asyncDishDAO, this, null);
         mainContentPanel.add(addForm, "ADD_FORM"); // Add it to the card layout
         CardLayout cl = (CardLayout) (mainContentPanel.getLayout());
         cl.show(mainContentPanel, "ADD_FORM"); // Switch to it
     }
 
     public void showEditDishForm(int dishId) {
-        Dish dishToEdit = dishDAO.getDishById(dishId);
-        if (dishToEdit != null) {
-            // Create a new form panel pre-populated with the dish to edit
-            DishFormPanel editForm = new DishFormPanel(dishDAO, this, dishToEdit);
-            String cardName = "EDIT_FORM_" + dishId; // Unique name for this card
-            mainContentPanel.add(editForm, cardName);
-            CardLayout cl = (CardLayout) (mainContentPanel.getLayout());
-            cl.show(mainContentPanel, cardName);
-        } else {
-            JOptionPane.showMessageDialog(this, "Could not find the dish to edit. It may have been deleted by another user.", "Error", JOptionPane.ERROR_MESSAGE);
-            showSearchDishPanel(); // Go back to the search view
-        }
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        asyncDishDAO.getDishById(dishId).whenCompleteAsync((dishToEdit, error) -> {
+            setCursor(Cursor.getDefaultCursor());
+            if (dishToEdit != null) {
+                // Create a new form panel pre-populated with the dish to edit
+                DishFormPanel editForm = new DishFormPanel(asyncDishDAO, this, dishToEdit);
+                String cardName = "EDIT_FORM_" + dishId; // Unique name for this card
+                mainContentPanel.add(editForm, cardName);
+                CardLayout cl = (CardLayout) (mainContentPanel.getLayout());
+                cl.show(mainContentPanel, cardName);
+            } else if (error != null) {
+                JOptionPane.showMessageDialog(this, "Could not load the dish to edit: " + DaoExecutor.describeFailure(error), "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Could not find the dish to edit. It may have been deleted by another user.", "Error", JOptionPane.ERROR_MESSAGE);
+                showSearchDishPanel(); // Go back to the search view
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     // --- Sidebar Creation ---
@@ -202,73 +253,197 @@ public class MenuManager extends JFrame {
     // This can stay here or be moved to a dedicated utility class if it grows more complex.
     private void handleImportDishes() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Import Dishes from TXT");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Text files (*.txt)", "txt"));
+        fileChooser.setDialogTitle("Import Dishes");
+        for (DishFileFilter filter : createFileFilters()) {
+            fileChooser.addChoosableFileFilter(filter);
+        }
+        DishFileFilter allFormats = DishFileFilter.anyDishFile();
+        fileChooser.addChoosableFileFilter(allFormats);
+        fileChooser.setFileFilter(allFormats);
+        JCheckBox matchById = new JCheckBox("<html>Update dishes with<br>matching IDs</html>", matchImportsById);
+        matchById.setToolTipText("Re-importing an export then updates those dishes instead of adding copies; unchanged dishes are skipped");
+        fileChooser.setAccessory(matchById);
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File fileToImport = fileChooser.getSelectedFile();
-            int importedCount = 0;
-            int failedCount = 0;
-            try (BufferedReader reader = new BufferedReader(new FileReader(fileToImport))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    Dish dish = Dish.fromFileString(line);
-                    if (dish != null) {
-                        if (dishDAO.addDish(dish)) {
-                            importedCount++;
-                        } else {
-                            failedCount++;
-                        }
-                    } else {
-                        failedCount++;
+            matchImportsById = matchById.isSelected();
+            ImportMode mode = matchImportsById ? ImportMode.UPSERT : ImportMode.APPEND;
+            ImportPipeline pipeline = new ImportPipeline(dishDAO, fileToImport, mode);
+            TransferProgressDialog progressDialog = new TransferProgressDialog(this, "Importing Dishes", pipeline::cancel);
+
+            // Poll the pipeline for live progress; the import itself never touches the EDT
+            Timer progressTimer = new Timer(PROGRESS_REFRESH_MS, e -> {
+                ImportProgress progress = pipeline.getProgress();
+                progressDialog.setProgress(progress.getFractionDone(), mode == ImportMode.UPSERT
+                        ? String.format("Written %,d, unchanged %,d, failed %,d  (%,.0f rows/s)", progress.getImportedCount(),
+                                progress.getUnchangedCount(), progress.getFailedCount(), progress.getRowsPerSecond())
+                        : String.format("Imported %,d, failed %,d  (%,.0f rows/s)",
+                                progress.getImportedCount(), progress.getFailedCount(), progress.getRowsPerSecond()));
+            });
+
+            SwingWorker<ImportResult, Void> worker = new SwingWorker<>() {
+                @Override
+                protected ImportResult doInBackground() throws Exception {
+                    return pipeline.call();
+                }
+
+                @Override
+                protected void done() {
+                    progressTimer.stop();
+                    progressDialog.dispose();
+                    try {
+                        showImportResult(get(), mode);
+                    } catch (Exception e) {
+                        JOptionPane.showMessageDialog(MenuManager.this, "Error importing file: " + e.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
                     }
                 }
-                showSearchDishPanel(); // Refresh view after import
-                JOptionPane.showMessageDialog(this,
-                        "Import complete.\nSuccessfully imported: " + importedCount + " dishes.\nFailed or duplicate lines: " + failedCount,
-                        "Import Result", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error importing file: " + e.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
-            }
+            };
+            progressTimer.start();
+            progressDialog.setVisible(true);
+            worker.execute();
+        }
+    }
+
+    private void showImportResult(ImportResult result, ImportMode mode) {
+        searchDishPanel.refreshTableData(); // Refresh view after import
+        showSearchDishPanel();
+        if (result.getError() != null) {
+            JOptionPane.showMessageDialog(this,
+                    "Error importing file: " + result.getError().getMessage() +
+                    "\nImported before the error: " + result.getImportedCount() + " dishes.",
+                    "Import Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String title = result.isCancelled() ? "Import Cancelled" : "Import Result";
+        String heading = result.isCancelled() ? "Import cancelled." : "Import complete.";
+        StringBuilder message = new StringBuilder(heading);
+        if (mode == ImportMode.UPSERT) {
+            message.append(String.format("\nNew dishes: %,d\nUpdated: %,d\nUnchanged: %,d\nFailed: %,d",
+                    result.getInsertedCount(), result.getUpdatedCount(), result.getUnchangedCount(), result.getFailedCount()));
+        } else {
+            message.append("\nSuccessfully imported: ").append(result.getImportedCount()).append(" dishes.")
+                    .append("\nFailed or duplicate lines: ").append(result.getFailedCount());
         }
+        message.append(String.format("\nThroughput: %,.0f rows/s", result.getRowsPerSecond()))
+                .append("\nFile: ").append(describeTransfer(result.getFileBytes(), result.getCompressionRatio(), result.getMegabytesPerSecond()));
+        List<MalformedLine> malformed = result.getMalformedLines();
+        if (!malformed.isEmpty()) {
+            message.append("\n\nLines that could not be read:");
+            malformed.stream()
+                    .sorted(Comparator.comparingLong(MalformedLine::getByteOffset))
+                    .limit(5)
+                    .forEach(line -> message.append("\n").append(line));
+            malformed.forEach(line -> System.err.println("Skipped line at " + line));
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), title, JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void handleExportDishes() {
-        List<Dish> allDishes = dishDAO.getAllDishes();
-        if (allDishes.isEmpty()) {
+        asyncDishDAO.countDishes().whenCompleteAsync((dishCount, error) -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Error exporting file: " + DaoExecutor.describeFailure(error), "Export Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                exportDishes(dishCount);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    private void exportDishes(int dishCount) {
+        if (dishCount < 0) {
+            JOptionPane.showMessageDialog(this, "Error exporting file: could not read the dishes from the database.", "Export Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (dishCount == 0) {
             JOptionPane.showMessageDialog(this, "No dishes to export.", "Export", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
 
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Export Dishes to TXT");
-        fileChooser.setSelectedFile(new File("dishes_export.txt"));
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Text files (*.txt)", "txt"));
+        fileChooser.setDialogTitle("Export Dishes");
+        fileChooser.setSelectedFile(new File("dishes_export"));
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        List<DishFileFilter> formatFilters = createFileFilters();
+        for (DishFileFilter filter : formatFilters) {
+            fileChooser.addChoosableFileFilter(filter);
+        }
+        fileChooser.setFileFilter(formatFilters.get(0));
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            if (!fileToSave.getName().toLowerCase().endsWith(".txt")) {
-                fileToSave = new File(fileToSave.getParentFile(), fileToSave.getName() + ".txt");
+            // A typed extension wins; otherwise format and compression come from the selected filter
+            DishFileFormat format = DishFileFormat.forFile(fileToSave);
+            Compression compression = Compression.forFile(fileToSave);
+            if (!format.matches(fileToSave)) {
+                DishFileFilter filter = (DishFileFilter) fileChooser.getFileFilter();
+                format = filter.getFormat();
+                compression = filter.getCompression();
+                fileToSave = new File(fileToSave.getParentFile(), fileToSave.getName() + filter.getSuffix());
             }
+            File exportFile = fileToSave;
+
+            // Rows are streamed from the database (through the compressor) straight into the file, so nothing is held in memory
+            DishExporter exporter = new DishExporter(dishDAO, exportFile, format, compression, dishCount);
+            TransferProgressDialog progressDialog = new TransferProgressDialog(this, "Exporting Dishes", exporter::cancel);
+            Timer progressTimer = new Timer(PROGRESS_REFRESH_MS, e -> progressDialog.setProgress(exporter.getFractionDone(),
+                    String.format("Exported %,d of %,d dishes", exporter.getRowsWritten(), exporter.getExpectedRows())));
+
+            SwingWorker<ExportResult, Void> worker = new SwingWorker<>() {
+                @Override
+                protected ExportResult doInBackground() throws Exception {
+                    return exporter.call();
+                }
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileToSave))) {
-                for (Dish dish : allDishes) {
-                    writer.write(dish.toFileString());
-                    writer.newLine();
+                @Override
+                protected void done() {
+                    progressTimer.stop();
+                    progressDialog.dispose();
+                    try {
+                        ExportResult result = get();
+                        if (result.isCancelled()) {
+                            JOptionPane.showMessageDialog(MenuManager.this, "Export cancelled.", "Export", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(MenuManager.this, "Dishes exported successfully to\n" + exportFile.getAbsolutePath() +
+                                    String.format("\n%,d dishes, %s", result.getRowsWritten(), describeTransfer(
+                                            result.getFileBytes(), result.getCompressionRatio(), result.getMegabytesPerSecond())),
+                                    "Export Successful", JOptionPane.INFORMATION_MESSAGE);
+                        }
+                    } catch (Exception e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        JOptionPane.showMessageDialog(MenuManager.this, "Error exporting file: " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+                    }
                 }
-                JOptionPane.showMessageDialog(this, "Dishes exported successfully to\n" + fileToSave.getAbsolutePath(), "Export Successful", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error exporting file: " + e.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
-            }
+            };
+            progressTimer.start();
+            progressDialog.setVisible(true);
+            worker.execute();
         }
     }
 
     // --- Helper Methods ---
+    // One filter per format and compression, uncompressed text first
+    private static List<DishFileFilter> createFileFilters() {
+        List<DishFileFilter> filters = new ArrayList<>();
+        for (DishFileFormat format : DishFileFormat.values()) {
+            for (Compression compression : Compression.values()) {
+                filters.add(DishFileFilter.of(format, compression));
+            }
+        }
+        return filters;
+    }
+
+    // "12.3 MB, 4.1x compressed, 85.0 MB/s"
+    private static String describeTransfer(long fileBytes, double compressionRatio, double megabytesPerSecond) {
+        String size = String.format("%,.1f MB", fileBytes / 1e6);
+        String ratio = compressionRatio > 1.0001 ? String.format(", %.1fx compressed", compressionRatio) : "";
+        return size + ratio + String.format(", %,.1f MB/s", megabytesPerSecond);
+    }
     private ImageIcon loadIconFromClasspath(String path, int width, int height) {
         URL imgUrl = getClass().getResource(path);
         if (imgUrl != null) {
             try {
-                Image img = ImageIO.read(imgUrl);
-                return new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+                BufferedImage img = ThumbnailDecoder.decode(imgUrl, width, height, false);
+                if (img != null) {
+                    return new ImageIcon(img);
+                }
             } catch (IOException e) {
                 System.err.println("Couldn't load icon from classpath: " + path);
             }
@@ -283,6 +458,7 @@ public class MenuManager extends JFrame {
         } catch (Exception e) {
             System.err.println("Failed to set LookAndFeel: " + e.getMessage());
         }
+        EdtWatchdog.install();
         SwingUtilities.invokeLater(MenuManager::new);
     }
 }
\ No newline at end of file
@@ -1,40 +1,91 @@
 package com.dish.ui;
 
-import com.dish.dao.DishDAO;
+import com.dish.catalog.DishCatalog;
+import com.dish.catalog.FacetIndex;
+import com.dish.dao.AsyncDishDAO;
+import com.dish.dao.DaoExecutor;
+import com.dish.dao.DishChangeListener;
+import com.dish.image.ImageDecodeService;
+import com.dish.metrics.Counter;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
 import com.dish.model.Dish;
+import com.dish.search.DishSearchIndex;
+import com.dish.ui.table.PagedDishTableModel;
+import com.dish.ui.table.PriceCellRenderer;
 import com.dish.ui.table.TableActionCellEditor;
 import com.dish.ui.table.TableActionCellRenderer;
 import com.dish.ui.table.TableActionListener;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionListener;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.regex.PatternSyntaxException;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SearchDishPanel extends JPanel {
 
-    private final DefaultTableModel dishTableModel;
+    private final PagedDishTableModel dishTableModel;
     private final JTable dishTable;
-    private final TableRowSorter<DefaultTableModel> sorter;
-    private final DishDAO dishDAO;
+    private final TableRowSorter<PagedDishTableModel> sorter;
+    private final AsyncDishDAO dishDAO;
+    private final DishSearchIndex searchIndex;
+    private final DishCatalog catalog;
     private final MenuManager mainFrame; // To communicate back
+    private String activeLocalQuery = null; // Query currently applied through the local index, if any
 
-    private final String[] TABLE_COLUMNS = {"ID", "Dish Name", "Dish Type", "Price (¥)", "Ingredients", "Introduction", "Photo", "Actions"};
-    private final int photoColumnIndex = 6;
+    // --- Facets ---
+    private final JTextField searchField = new JTextField(30);
+    private final JComboBox<FacetOption> typeFacet = new JComboBox<>();
+    private final JComboBox<FacetOption> priceFacet = new JComboBox<>();
+    private boolean updatingFacets = false; // Set while the combo boxes are refilled, so that does not count as a choice
+    private static final FacetOption ALL_TYPES = new FacetOption("All types", null, 0, Double.POSITIVE_INFINITY);
+    private static final FacetOption ANY_PRICE = new FacetOption("Any price", null, 0, Double.POSITIVE_INFINITY);
+    private static final FacetOption[] PRICE_BANDS = {
+            new FacetOption("Under ¥20", null, 0, 20),
+            new FacetOption("¥20 - ¥50", null, 20, 50),
+            new FacetOption("¥50 - ¥100", null, 50, 100),
+            new FacetOption("¥100 and up", null, 100, Double.POSITIVE_INFINITY),
+    };
+
+    private final int photoColumnIndex = PagedDishTableModel.PHOTO_COLUMN;
     private final int TABLE_IMAGE_HEIGHT = 50;
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 20;
+    // How often refreshes are asked for; how long each one takes until the rows show is DishTable.reload
+    private static final Counter REFRESH_COUNTER = MetricsRegistry.getInstance().counter("SearchDishPanel.refreshTableData");
+    private static final Timer FILTER_TIMER = MetricsRegistry.getInstance().timer("SearchDishPanel.filter");
+
+    // --- Search as you type ---
+    private static final int SEARCH_DEBOUNCE_MS = Integer.getInteger("dish.search.debounceMs", 200);
+    // Filters are evaluated here, never on the EDT; one thread, so evaluations run in the order they were asked for
+    private static final ExecutorService FILTER_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dish-search-filter");
+        t.setDaemon(true);
+        return t;
+    });
+    private final javax.swing.Timer searchDebounce = new javax.swing.Timer(SEARCH_DEBOUNCE_MS, e -> runSearch(searchField.getText()));
+    private CompletableFuture<FilterResult> pendingFilter = null;
+    // Bumped for every evaluation; an older one stops early and is never published
+    private volatile long filterGeneration = 0;
+    private final AtomicBoolean filterRefreshPending = new AtomicBoolean();
 
-    public SearchDishPanel(DishDAO dishDAO, MenuManager mainFrame) {
+    public SearchDishPanel(AsyncDishDAO dishDAO, DishSearchIndex searchIndex, DishCatalog catalog, MenuManager mainFrame) {
         this.dishDAO = dishDAO;
+        this.searchIndex = searchIndex;
+        this.catalog = catalog;
         this.mainFrame = mainFrame;
 
         setLayout(new BorderLayout(10, 10));
@@ -46,23 +97,42 @@ public class SearchDishPanel extends JPanel {
         add(topPanel, BorderLayout.NORTH);
 
         // --- Table ---
-        dishTableModel = new DefaultTableModel(TABLE_COLUMNS, 0) {
+        // Opening the panel costs one COUNT query. Pages of rows are fetched and photos decoded in the background
+        // as they scroll into view; rows paint empty until their page arrives, photos show a placeholder until decoded
+        dishTableModel = new PagedDishTableModel(dishDAO, ImageDecodeService.getInstance(),
+                TABLE_IMAGE_HEIGHT, PAGE_SIZE, MAX_CACHED_PAGES);
+        dishDAO.addChangeListener(dishTableModel);
+        dishTable = new JTable(dishTableModel);
+        sorter = new TableRowSorter<>(dishTableModel);
+        // Sorting by a column would pull every page into memory, so rows stay in id order
+        for (int i = 0; i < dishTableModel.getColumnCount(); i++) {
+            sorter.setSortable(i, false);
+        }
+        dishTable.setRowSorter(sorter);
+        // A write can change which dishes match and the facet counts. Registered after the catalog and the index,
+        // so they already hold the change when the filters are evaluated again.
+        dishDAO.addChangeListener(new DishChangeListener() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == TABLE_COLUMNS.length - 1;
+            public void dishAdded(Dish dish) {
+                dishesChanged();
             }
+
             @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                return (columnIndex == photoColumnIndex) ? ImageIcon.class : super.getColumnClass(columnIndex);
+            public void dishUpdated(Dish dish) {
+                dishesChanged();
             }
-        };
-        dishTable = new JTable(dishTableModel);
-        sorter = new TableRowSorter<>(dishTableModel);
-        dishTable.setRowSorter(sorter);
+
+            @Override
+            public void dishDeleted(int dishId) {
+                dishesChanged();
+            }
+        });
 
         setupTable();
 
-        add(new JScrollPane(dishTable), BorderLayout.CENTER);
+        JScrollPane scrollPane = new JScrollPane(dishTable);
+        scrollPane.getViewport().addChangeListener(e -> updatePhotoWindow(scrollPane.getViewport()));
+        add(scrollPane, BorderLayout.CENTER);
 
         refreshTableData();
     }
@@ -71,8 +141,7 @@ public class SearchDishPanel extends JPanel {
         JPanel topPanel = new JPanel(new BorderLayout(10, 0));
         topPanel.setOpaque(false);
         
-        JLabel searchLabel = new JLabel("Search by Name/Type: ");
-        JTextField searchField = new JTextField(30);
+        JLabel searchLabel = new JLabel("Search Dishes: ");
         JButton searchButton = new JButton("Search");
         
         JPanel searchInputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -80,30 +149,62 @@ public class SearchDishPanel extends JPanel {
         searchInputPanel.add(searchLabel);
         searchInputPanel.add(searchField);
         searchInputPanel.add(searchButton);
+        searchInputPanel.add(new JLabel("  Type: "));
+        searchInputPanel.add(typeFacet);
+        searchInputPanel.add(new JLabel("  Price: "));
+        searchInputPanel.add(priceFacet);
         topPanel.add(searchInputPanel, BorderLayout.WEST);
 
-        ActionListener searchAction = e -> {
-            String text = searchField.getText();
-            if (text.trim().isEmpty()) {
-                sorter.setRowFilter(null);
-            } else {
-                try {
-                    List<RowFilter<Object, Object>> rfs = new ArrayList<>(2);
-                    rfs.add(RowFilter.regexFilter("(?i)" + text, 1)); // Name
-                    rfs.add(RowFilter.regexFilter("(?i)" + text, 2)); // Type
-                    sorter.setRowFilter(RowFilter.orFilter(rfs));
-                } catch (PatternSyntaxException pse) {
-                    JOptionPane.showMessageDialog(this, "Invalid search pattern.", "Search Error", JOptionPane.ERROR_MESSAGE);
-                }
+        // Facets need the in-memory catalog; they stay disabled until it has loaded, see refreshFacets()
+        typeFacet.addItem(ALL_TYPES);
+        priceFacet.addItem(ANY_PRICE);
+        for (FacetOption band : PRICE_BANDS) {
+            priceFacet.addItem(band);
+        }
+        typeFacet.setEnabled(catalog.isReady());
+        priceFacet.setEnabled(catalog.isReady());
+        ActionListener facetAction = e -> {
+            if (!updatingFacets) {
+                facetChanged();
             }
         };
+        typeFacet.addActionListener(facetAction);
+        priceFacet.addActionListener(facetAction);
+
+        // Typing searches once the keyboard has been idle for SEARCH_DEBOUNCE_MS; Enter or the button search right away
+        ActionListener searchAction = e -> {
+            searchDebounce.stop();
+            runSearch(searchField.getText());
+        };
         searchButton.addActionListener(searchAction);
         searchField.addActionListener(searchAction);
+        searchDebounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only, the text is the same
+            }
+        });
 
         JButton clearSearchButton = new JButton("Show All");
         clearSearchButton.addActionListener(e -> {
             searchField.setText("");
-            sorter.setRowFilter(null);
+            searchDebounce.stop(); // Clearing the field counts as typing; this search replaces that one
+            updatingFacets = true;
+            typeFacet.setSelectedItem(ALL_TYPES);
+            priceFacet.setSelectedItem(ANY_PRICE);
+            updatingFacets = false;
+            runSearch("");
         });
         JPanel clearButtonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         clearButtonPanel.setOpaque(false);
@@ -113,6 +214,231 @@ public class SearchDishPanel extends JPanel {
         return topPanel;
     }
 
+    private void runSearch(String text) {
+        activeLocalQuery = null;
+        if (text.trim().isEmpty() || searchIndex.isReady()) {
+            if (dishTableModel.isSearching()) {
+                dishTableModel.setSearchQuery(null);
+            }
+            activeLocalQuery = text.trim().isEmpty() ? null : text;
+            applyFilters();
+        } else {
+            // Index still loading: let the database's FULLTEXT index do the matching, one page of hits at a time
+            filterGeneration++; // A local evaluation still in flight must not narrow the database's hits
+            dishTableModel.setSearchQuery(text);
+        }
+    }
+
+    // Called on the DAO's thread for every write; a burst of them is filtered again once, on the EDT
+    private void dishesChanged() {
+        if (filterRefreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                filterRefreshPending.set(false);
+                if (activeLocalQuery != null || catalog.isReady()) {
+                    applyFilters();
+                }
+            });
+        }
+    }
+
+    /**
+     * Called once the catalog has loaded: enables the facets and fills in their counts.
+     */
+    public void refreshFacets() {
+        typeFacet.setEnabled(true);
+        priceFacet.setEnabled(true);
+        applyFilters();
+    }
+
+    private void facetChanged() {
+        if (dishTableModel.isSearching()) {
+            // A database search started before the local index was ready; facets combine with the local one only
+            runSearch(searchField.getText());
+        } else {
+            applyFilters();
+        }
+    }
+
+    /**
+     * Re-evaluates the text query and facets in the background. Whatever evaluation is still in flight is
+     * abandoned, and only the newest result reaches the table, as one filter change.
+     */
+    private void applyFilters() {
+        String query = activeLocalQuery;
+        FacetOption type = (FacetOption) typeFacet.getSelectedItem();
+        FacetOption price = (FacetOption) priceFacet.getSelectedItem();
+        long generation = ++filterGeneration;
+        if (pendingFilter != null) {
+            pendingFilter.cancel(false); // Skipped if it has not started; otherwise it notices the new generation
+        }
+        CompletableFuture<FilterResult> filter = CompletableFuture.supplyAsync(
+                () -> evaluateFilters(query, type, price, generation), FILTER_EXECUTOR);
+        pendingFilter = filter;
+        filter.whenCompleteAsync((result, error) -> {
+            if (generation != filterGeneration) {
+                return; // Superseded while it ran
+            }
+            pendingFilter = null;
+            if (error != null) {
+                if (!(error instanceof CancellationException || error.getCause() instanceof CancellationException)) {
+                    error.printStackTrace();
+                }
+                return;
+            }
+            publishFilter(result);
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Runs on the filter thread. Text matches are mapped onto the facet snapshot's rows, so combining them is an AND;
+    // the result goes out as the ascending dish ids the table pages through
+    private FilterResult evaluateFilters(String query, FacetOption type, FacetOption price, long generation) {
+        long start = System.nanoTime();
+        int[] textIds = query != null ? searchIndex.search(query) : null;
+        checkCurrent(generation);
+        FacetIndex facets = catalog.isReady() ? catalog.getFacets() : null;
+        checkCurrent(generation);
+        if (facets == null) {
+            FILTER_TIMER.recordSince(start);
+            return new FilterResult(textIds, null, null);
+        }
+        BitSet textRows = textIds != null ? facets.rowsOf(textIds) : null;
+        BitSet typeRows = null;
+        BitSet priceRows = null;
+        if (type != null && !ALL_TYPES.equals(type)) {
+            typeRows = facets.rowsOfType(type.type);
+        }
+        if (price != null && !ANY_PRICE.equals(price)) {
+            priceRows = facets.rowsInPriceRange(price.min, price.max);
+        }
+        List<FacetOption> typeOptions = countTypes(facets, and(textRows, priceRows), type);
+        List<FacetOption> priceOptions = countPrices(facets, and(textRows, typeRows));
+        BitSet matchingRows = and(and(textRows, typeRows), priceRows);
+        FILTER_TIMER.recordSince(start);
+        return new FilterResult(matchingRows == null ? null : facets.idsOf(matchingRows), typeOptions, priceOptions);
+    }
+
+    private void checkCurrent(long generation) {
+        if (generation != filterGeneration) {
+            throw new CancellationException();
+        }
+    }
+
+    // Each facet counts what choosing one of its options would show, given the text and the other facet
+    private static List<FacetOption> countTypes(FacetIndex facets, BitSet within, FacetOption selectedType) {
+        List<FacetOption> options = new ArrayList<>();
+        options.add(ALL_TYPES.withCount(within == null ? facets.getRowCount() : within.cardinality()));
+        for (String type : facets.getTypes()) {
+            boolean selected = selectedType != null && Objects.equals(type, selectedType.type);
+            // Types whose last dish was changed or deleted stay in the dictionary, but not in the list
+            if (selected || facets.countOfType(type, null) > 0) {
+                options.add(new FacetOption(type, type, 0, 0).withCount(facets.countOfType(type, within)));
+            }
+        }
+        return options;
+    }
+
+    private static List<FacetOption> countPrices(FacetIndex facets, BitSet within) {
+        List<FacetOption> options = new ArrayList<>();
+        options.add(ANY_PRICE.withCount(within == null ? facets.getRowCount() : within.cardinality()));
+        for (FacetOption band : PRICE_BANDS) {
+            options.add(band.withCount(facets.countInPriceRange(band.min, band.max, within)));
+        }
+        return options;
+    }
+
+    // On the EDT: the rows and the counts change together
+    private void publishFilter(FilterResult result) {
+        if (result.typeOptions != null) {
+            updatingFacets = true;
+            try {
+                replaceOptions(typeFacet, result.typeOptions);
+                replaceOptions(priceFacet, result.priceOptions);
+            } finally {
+                updatingFacets = false;
+            }
+        }
+        // The model pages through just the matching ids; no per-row filter runs over the whole table
+        dishTableModel.setFilteredIds(result.ids);
+    }
+
+    private static void replaceOptions(JComboBox<FacetOption> comboBox, List<FacetOption> options) {
+        Object selected = comboBox.getSelectedItem();
+        comboBox.setModel(new DefaultComboBoxModel<>(options.toArray(new FacetOption[0])));
+        comboBox.setSelectedItem(selected); // Options compare without their counts, so this finds the refreshed one
+    }
+
+    // Null stands for "no restriction"; the result may be one of the arguments
+    private static BitSet and(BitSet a, BitSet b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both;
+    }
+
+    private static class FilterResult {
+        final int[] ids; // Ascending; null when nothing is filtered
+        final List<FacetOption> typeOptions; // Null until the catalog has loaded
+        final List<FacetOption> priceOptions;
+
+        FilterResult(int[] ids, List<FacetOption> typeOptions, List<FacetOption> priceOptions) {
+            this.ids = ids;
+            this.typeOptions = typeOptions;
+            this.priceOptions = priceOptions;
+        }
+    }
+
+    /**
+     * One entry of a facet combo box. Options compare by what they select, not by their count,
+     * so the selection survives the combo box being refilled with fresh counts.
+     */
+    private static class FacetOption {
+        final String label;
+        final String type;
+        final double min;
+        final double max;
+        final int count;
+
+        FacetOption(String label, String type, double min, double max) {
+            this(label, type, min, max, -1);
+        }
+
+        private FacetOption(String label, String type, double min, double max, int count) {
+            this.label = label;
+            this.type = type;
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        FacetOption withCount(int count) {
+            return new FacetOption(label, type, min, max, count);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FacetOption)) {
+                return false;
+            }
+            FacetOption other = (FacetOption) o;
+            return label.equals(other.label) && Objects.equals(type, other.type) && min == other.min && max == other.max;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, type, min, max);
+        }
+
+        @Override
+        public String toString() {
+            return count < 0 ? label : label + " (" + count + ")";
+        }
+    }
+
     private void setupTable() {
         dishTable.setFont(new Font("Arial", Font.PLAIN, 12));
         dishTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
@@ -126,8 +452,10 @@ public class SearchDishPanel extends JPanel {
             @Override
             public void onEdit(int row) {
                 int modelRow = dishTable.convertRowIndexToModel(row);
-                int dishId = (int) dishTable.getValueAt(modelRow, 0);
-                mainFrame.showEditDishForm(dishId);
+                Dish dish = dishTableModel.getDishAt(modelRow);
+                if (dish != null) {
+                    mainFrame.showEditDishForm(dish.getId());
+                }
             }
 
             @Override
@@ -143,6 +471,8 @@ public class SearchDishPanel extends JPanel {
         actionsColumn.setMaxWidth(180);
         actionsColumn.setPreferredWidth(160);
 
+        dishTable.getColumnModel().getColumn(PagedDishTableModel.PRICE_COLUMN).setCellRenderer(new PriceCellRenderer());
+
         if (photoColumnIndex != -1) {
             TableColumn photoCol = dishTable.getColumnModel().getColumn(photoColumnIndex);
             photoCol.setPreferredWidth(TABLE_IMAGE_HEIGHT + 20);
@@ -150,54 +480,59 @@ public class SearchDishPanel extends JPanel {
     }
 
     public void refreshTableData() {
-        dishTableModel.setRowCount(0);
-        List<Dish> dishList = dishDAO.getAllDishes();
-        for (Dish dish : dishList) {
-            ImageIcon dishImage = loadImageIconFromFile(dish.getPhotoPath(), 50, 50);
-            dishTableModel.addRow(new Object[]{
-                dish.getId(), dish.getName(), dish.getType(),
-                String.format("%.2f", dish.getPrice()),
-                dish.getIngredients(), dish.getIntroduction(),
-                dishImage, "Actions"
-            });
-        }
+        REFRESH_COUNTER.increment();
+        dishTableModel.reload();
     }
 
     private void deleteDish(int modelRowIndex) {
-        if (modelRowIndex >= 0) {
-            int dishId = (int) dishTableModel.getValueAt(modelRowIndex, 0);
-            String dishName = (String) dishTableModel.getValueAt(modelRowIndex, 1);
+        Dish dish = modelRowIndex >= 0 ? dishTableModel.getDishAt(modelRowIndex) : null;
+        if (dish != null) {
+            int dishId = dish.getId();
+            String dishName = dish.getName();
             int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to delete '" + dishName + "'?",
                 "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
             if (confirm == JOptionPane.YES_OPTION) {
-                if (dishDAO.deleteDish(dishId)) {
-                    JOptionPane.showMessageDialog(this, "Dish '" + dishName + "' deleted.", "Deleted", JOptionPane.INFORMATION_MESSAGE);
-                    refreshTableData();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to delete dish.", "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                dishDAO.deleteDish(dishId).whenCompleteAsync((deleted, error) -> {
+                    if (error == null && deleted) {
+                        // The table drops the row itself when the DAO reports the delete
+                        JOptionPane.showMessageDialog(this, "Dish '" + dishName + "' deleted.", "Deleted", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        String detail = error != null ? ": " + DaoExecutor.describeFailure(error) : ".";
+                        JOptionPane.showMessageDialog(this, "Failed to delete dish" + detail, "Database Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
             }
         }
     }
 
-    private ImageIcon loadImageIconFromFile(String filePath, int width, int height) {
-        if (filePath == null || filePath.isEmpty()) {
-            return null; // No image path provided
+    // Decode photos for the rows on screen first, prefetch one screenful either side, and drop the rest
+    private void updatePhotoWindow(JViewport viewport) {
+        int viewRowCount = dishTable.getRowCount();
+        if (viewRowCount == 0) {
+            return;
         }
-        File imgFile = new File(filePath);
-        if (!imgFile.exists()) {
-            return null; // File does not exist
+        Rectangle view = viewport.getViewRect();
+        int first = dishTable.rowAtPoint(new Point(0, view.y));
+        int last = dishTable.rowAtPoint(new Point(0, view.y + view.height - 1));
+        first = first < 0 ? 0 : first;
+        last = last < 0 ? viewRowCount - 1 : last;
+        int screenful = last - first + 1;
+        int prefetchFirst = Math.max(0, first - screenful);
+        int prefetchLast = Math.min(viewRowCount - 1, last + screenful);
+
+        int[] visibleRows = new int[screenful];
+        for (int i = 0; i < screenful; i++) {
+            visibleRows[i] = dishTable.convertRowIndexToModel(first + i);
         }
-        try {
-            BufferedImage img = ImageIO.read(imgFile);
-            if (img != null) {
-                Image scaledImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
-                return new ImageIcon(scaledImg);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        int[] prefetchRows = new int[(first - prefetchFirst) + (prefetchLast - last)];
+        int n = 0;
+        for (int row = last + 1; row <= prefetchLast; row++) {
+            prefetchRows[n++] = dishTable.convertRowIndexToModel(row);
+        }
+        for (int row = first - 1; row >= prefetchFirst; row--) {
+            prefetchRows[n++] = dishTable.convertRowIndexToModel(row);
         }
-        return null; // Failed to load image
+        dishTableModel.updatePhotoWindow(visibleRows, prefetchRows);
     }
 }
\ No newline at end of file
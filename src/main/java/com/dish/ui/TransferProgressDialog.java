@@ -0,0 +1,56 @@
+package com.dish.ui;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+
+/**
+ * Small modeless dialog showing the progress of a long-running import or export.
+ * The rest of the window stays usable while it is open.
+ */
+public class TransferProgressDialog extends JDialog {
+
+    private static final int PROGRESS_SCALE = 1000;
+
+    private final JProgressBar progressBar = new JProgressBar(0, PROGRESS_SCALE);
+    private final JLabel statusLabel = new JLabel("Starting...");
+    private final JButton cancelButton = new JButton("Cancel");
+
+    public TransferProgressDialog(Frame owner, String title, Runnable onCancel) {
+        super(owner, title, false);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(new EmptyBorder(15, 15, 15, 15));
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(360, 22));
+        content.add(statusLabel, BorderLayout.NORTH);
+        content.add(progressBar, BorderLayout.CENTER);
+
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            statusLabel.setText("Cancelling...");
+            onCancel.run();
+        });
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(cancelButton);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    // fraction < 0 switches the bar to indeterminate mode (e.g. when the total size is unknown)
+    public void setProgress(double fraction, String status) {
+        if (fraction < 0) {
+            progressBar.setIndeterminate(true);
+        } else {
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) (fraction * PROGRESS_SCALE));
+        }
+        if (cancelButton.isEnabled()) {
+            statusLabel.setText(status);
+        }
+    }
+}
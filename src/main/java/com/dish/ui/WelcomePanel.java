@@ -4,16 +4,17 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
+import com.dish.image.ThumbnailDecoder;
+
 public class WelcomePanel extends JPanel {
 
     public WelcomePanel() {
@@ -40,8 +41,10 @@ public class WelcomePanel extends JPanel {
         URL imgUrl = getClass().getResource(path);
         if (imgUrl != null) {
             try {
-                Image img = ImageIO.read(imgUrl);
-                return new ImageIcon(img.getScaledInstance(width, height, Image.SCALE_SMOOTH));
+                BufferedImage img = ThumbnailDecoder.decode(imgUrl, width, height, false);
+                if (img != null) {
+                    return new ImageIcon(img);
+                }
             } catch (IOException e) {
                 System.err.println("Couldn't load icon from classpath: " + path);
             }
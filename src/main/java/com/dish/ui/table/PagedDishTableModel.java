@@ -0,0 +1,616 @@
+package com.dish.ui.table;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import com.dish.dao.DishChangeListener;
+import com.dish.dao.AsyncDishDAO;
+import com.dish.image.ImageDecodeService;
+import com.dish.metrics.MetricsRegistry;
+import com.dish.metrics.Timer;
+import com.dish.model.Dish;
+
+/**
+ * Table model that only knows the row count up front and fetches rows from the database
+ * one page at a time, as the table asks for them while the user scrolls.
+ * A small LRU cache keeps the most recently viewed pages in memory, stored as column arrays rather than
+ * Dish objects, so cached rows cost little heap and cells are read without any per-cell formatting.
+ * <p>
+ * Pages and counts are read through {@link AsyncDishDAO}, so the EDT never waits on the database:
+ * rows of a page still in flight paint empty, and fill in when the page arrives.
+ * <p>
+ * With a search query set, the model pages through the database's full-text matches
+ * (best first) instead of the whole table. With a filtered id list set (local search and facets), it pages
+ * through just those dishes, reading each page by primary key, so filtering never touches the rows left out.
+ * <p>
+ * Registered as a {@link DishChangeListener}, it applies single-row inserts, updates and deletes
+ * to the cached pages and fires row-level events, so one edit repaints one row instead of reloading the table.
+ */
+public class PagedDishTableModel extends AbstractTableModel implements DishChangeListener {
+
+    // A burst bigger than this (e.g. an import) is cheaper to handle as one reload than row by row
+    private static final int MAX_INCREMENTAL_CHANGES = 200;
+
+    // From the request to the rows being on the model, queueing and EDT hand-off included, i.e. what the user waits for
+    private static final Timer RELOAD_TIMER = MetricsRegistry.getInstance().timer("DishTable.reload");
+    private static final Timer PAGE_LOAD_TIMER = MetricsRegistry.getInstance().timer("DishTable.pageLoad");
+
+    public static final String[] COLUMNS = {"ID", "Dish Name", "Dish Type", "Price (¥)", "Ingredients", "Introduction", "Photo", "Actions"};
+    public static final int ID_COLUMN = 0;
+    public static final int NAME_COLUMN = 1;
+    public static final int TYPE_COLUMN = 2;
+    public static final int PRICE_COLUMN = 3;
+    public static final int INGREDIENTS_COLUMN = 4;
+    public static final int INTRODUCTION_COLUMN = 5;
+    public static final int PHOTO_COLUMN = 6;
+    public static final int ACTIONS_COLUMN = 7;
+
+    private final AsyncDishDAO dishDAO;
+    private final ImageDecodeService photoDecoder;
+    private final int photoSize;
+    private final ImageIcon photoPlaceholder;
+    private final int pageSize;
+    private final Map<Integer, Page> pageCache;
+    private final TypeDictionary types = new TypeDictionary();
+    // Last id of every page seen so far; tiny, and lets the next page be fetched by keyset even after eviction
+    private final Map<Integer, Integer> lastIdByPage = new HashMap<>();
+    // Page loads in flight, each with a token; dropping the entry makes the load's result be ignored
+    private final Map<Integer, Object> loadingPages = new HashMap<>();
+    private int rowCount = 0;
+    private String searchQuery = null;
+    // Ascending ids the model is narrowed to, or null for the whole table or a database search
+    private int[] filteredIds = null;
+    private Object pendingReload = null;
+    private boolean reloadAgain = false;
+
+    private final Object pendingLock = new Object();
+    private List<Runnable> pendingChanges = new ArrayList<>();
+    private boolean drainScheduled = false;
+
+    public PagedDishTableModel(AsyncDishDAO dishDAO, ImageDecodeService photoDecoder, int photoSize, int pageSize, int maxCachedPages) {
+        this.dishDAO = dishDAO;
+        this.photoDecoder = photoDecoder;
+        this.photoSize = photoSize;
+        this.photoPlaceholder = createPlaceholder(photoSize);
+        this.pageSize = pageSize;
+        this.pageCache = new LinkedHashMap<>(maxCachedPages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                if (size() > maxCachedPages) {
+                    eldest.getValue().discard();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static ImageIcon createPlaceholder(int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(235, 235, 235));
+        g.fillRect(0, 0, size, size);
+        g.dispose();
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Drops every cached page and re-reads the row count. Only the pages the table
+     * actually paints afterwards are fetched again.
+     */
+    public void reload() {
+        if (filteredIds != null) {
+            setFilteredIds(filteredIds);
+        } else {
+            reload(searchQuery);
+        }
+    }
+
+    /**
+     * Narrows the model to the dishes with these ids, which must be ascending, or goes back to the whole table
+     * when {@code ids} is null. The row count is known straight away, so this swaps the rows at once; any reload
+     * still waiting for its count is dropped. Pages are re-read, so rows already on screen are fresh as well.
+     */
+    public void setFilteredIds(int[] ids) {
+        if (ids == null) {
+            if (filteredIds != null) {
+                reload(null);
+            }
+            return;
+        }
+        pendingReload = null;
+        reloadAgain = false;
+        discardPages();
+        searchQuery = null;
+        filteredIds = ids;
+        rowCount = ids.length;
+        fireTableDataChanged();
+    }
+
+    public boolean isFiltered() {
+        return filteredIds != null;
+    }
+
+    private void discardPages() {
+        pageCache.values().forEach(Page::discard);
+        pageCache.clear();
+        lastIdByPage.clear();
+        loadingPages.clear();
+    }
+
+    /**
+     * Switches the model to the matches of {@code query}, or back to the whole table when it is null or blank.
+     */
+    public void setSearchQuery(String query) {
+        reload((query == null || query.trim().isEmpty()) ? null : query.trim());
+    }
+
+    // The current rows stay on screen until the new count is in; only then is everything swapped at once
+    private void reload(String query) {
+        long start = System.nanoTime();
+        Object token = new Object();
+        pendingReload = token;
+        reloadAgain = false;
+        CompletableFuture<Integer> count = query != null ? dishDAO.countSearchResults(query) : dishDAO.countDishes();
+        count.whenCompleteAsync((newRowCount, error) -> {
+            if (pendingReload != token) {
+                return; // Superseded by a later reload
+            }
+            pendingReload = null;
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (newRowCount < 0) {
+                return; // The count failed; keep showing the rows we have
+            }
+            discardPages();
+            searchQuery = query;
+            filteredIds = null;
+            rowCount = newRowCount;
+            fireTableDataChanged();
+            RELOAD_TIMER.recordSince(start);
+            if (reloadAgain) {
+                reload();
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    public boolean isSearching() {
+        return searchQuery != null;
+    }
+
+    /**
+     * Returns the dish at {@code row}, or null while its page is still loading.
+     */
+    public Dish getDishAt(int row) {
+        Page page = getPage(row / pageSize);
+        int index = row % pageSize;
+        return (page != null && index < page.size()) ? page.getDish(index) : null;
+    }
+
+    // Returns null and starts loading the page if it is not cached
+    private Page getPage(int pageIndex) {
+        Page page = pageCache.get(pageIndex);
+        if (page == null && !loadingPages.containsKey(pageIndex)) {
+            requestPage(pageIndex);
+        }
+        return page;
+    }
+
+    private void requestPage(int pageIndex) {
+        long start = System.nanoTime();
+        Object token = new Object();
+        loadingPages.put(pageIndex, token);
+        boolean searching = isSearching();
+        CompletableFuture<List<Dish>> rows;
+        if (filteredIds != null) {
+            int from = Math.min(pageIndex * pageSize, filteredIds.length);
+            rows = dishDAO.getDishesByIds(Arrays.copyOfRange(filteredIds, from, Math.min(from + pageSize, filteredIds.length)));
+        } else if (searching) {
+            // Relevance order has no stable key to seek on, but match sets are small enough for OFFSET
+            rows = dishDAO.searchDishes(searchQuery, pageSize, pageIndex * pageSize);
+        } else if (pageIndex == 0 || lastIdByPage.containsKey(pageIndex - 1)) {
+            // The id just before the first row of the page; 0 for the first page since ids start at 1
+            int anchor = pageIndex == 0 ? 0 : lastIdByPage.get(pageIndex - 1);
+            rows = dishDAO.getDishesAfter(anchor, pageSize);
+        } else {
+            // Jumped straight into the middle (e.g. by dragging the scrollbar): look the anchor up by primary key only.
+            // Past the end of the table there is no anchor and the page comes back empty.
+            rows = dishDAO.getIdAtOffset(pageIndex * pageSize - 1)
+                    .thenCompose(anchor -> dishDAO.getDishesAfter(anchor < 0 ? Integer.MAX_VALUE : anchor, pageSize));
+        }
+        rows.whenCompleteAsync((dishes, error) -> {
+            PAGE_LOAD_TIMER.recordSince(start);
+            pageLoaded(pageIndex, token, searching, dishes, error);
+        }, SwingUtilities::invokeLater);
+    }
+
+    private void pageLoaded(int pageIndex, Object token, boolean searching, List<Dish> dishes, Throwable error) {
+        if (!loadingPages.remove(pageIndex, token)) {
+            return; // The rows moved (reload, insert, delete) while the page was in flight
+        }
+        if (error != null) {
+            // Left uncached, so the next paint of these rows retries
+            error.printStackTrace();
+            return;
+        }
+        Page page = new Page(pageIndex, dishes, !searching);
+        pageCache.put(pageIndex, page);
+        if (!searching && filteredIds == null && !dishes.isEmpty()) {
+            lastIdByPage.put(pageIndex, dishes.get(dishes.size() - 1).getId());
+        }
+        int firstRow = pageIndex * pageSize;
+        int lastRow = Math.min(rowCount, firstRow + pageSize) - 1;
+        if (lastRow >= firstRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    // --- Incremental updates ---
+
+    @Override
+    public void dishAdded(Dish dish) {
+        Dish copy = new Dish(dish);
+        enqueueChange(() -> applyInsert(copy));
+    }
+
+    @Override
+    public void dishUpdated(Dish dish) {
+        Dish copy = new Dish(dish);
+        enqueueChange(() -> applyUpdate(copy));
+    }
+
+    @Override
+    public void dishDeleted(int dishId) {
+        enqueueChange(() -> applyDelete(dishId));
+    }
+
+    // DAO events can arrive on any thread; they are collected and applied together on the EDT
+    private void enqueueChange(Runnable change) {
+        synchronized (pendingLock) {
+            pendingChanges.add(change);
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        SwingUtilities.invokeLater(this::applyPendingChanges);
+    }
+
+    private void applyPendingChanges() {
+        List<Runnable> changes;
+        synchronized (pendingLock) {
+            changes = pendingChanges;
+            pendingChanges = new ArrayList<>();
+            drainScheduled = false;
+        }
+        if (pendingReload != null) {
+            // Row positions are about to be replaced wholesale; re-read once more after that so nothing is missed
+            reloadAgain = true;
+            return;
+        }
+        if (filteredIds != null) {
+            // Whoever set the id list filters again after a change and hands over a new one
+            return;
+        }
+        if (changes.size() > MAX_INCREMENTAL_CHANGES || isSearching()) {
+            // Relevance order can move a changed row anywhere, so search results are simply re-queried
+            reload();
+            return;
+        }
+        for (Runnable change : changes) {
+            change.run();
+            if (pendingReload != null) {
+                break; // A change fell back to a reload, which picks up the rest as well
+            }
+        }
+    }
+
+    private void applyInsert(Dish dish) {
+        // Auto-increment ids only grow, so a new dish normally becomes the last row. An import that keeps
+        // the ids from its file can add one below rows already loaded, and then everything after it shifts.
+        for (int lastId : lastIdByPage.values()) {
+            if (lastId > dish.getId()) {
+                reload();
+                return;
+            }
+        }
+        int row = rowCount;
+        Page lastPage = pageCache.get(row / pageSize);
+        // A load of the last page may have been answered before the insert committed
+        loadingPages.remove(row / pageSize);
+        if (lastPage != null) {
+            lastPage.add(dish);
+            lastIdByPage.put(row / pageSize, dish.getId());
+        }
+        rowCount++;
+        fireTableRowsInserted(row, row);
+    }
+
+    private void applyUpdate(Dish dish) {
+        for (Map.Entry<Integer, Page> entry : pageCache.entrySet()) {
+            int index = entry.getValue().indexOf(dish.getId());
+            if (index >= 0) {
+                entry.getValue().replace(index, dish);
+                int row = entry.getKey() * pageSize + index;
+                fireTableRowsUpdated(row, row);
+                return;
+            }
+        }
+        // Not cached: the row will be read fresh whenever it is scrolled to
+    }
+
+    private void applyDelete(int dishId) {
+        for (Map.Entry<Integer, Page> entry : pageCache.entrySet()) {
+            int index = entry.getValue().indexOf(dishId);
+            if (index >= 0) {
+                int pageIndex = entry.getKey();
+                int row = pageIndex * pageSize + index;
+                // Every later row moves up by one, so this page and the ones after it no longer line up
+                pageCache.entrySet().removeIf(e -> {
+                    if (e.getKey() >= pageIndex) {
+                        e.getValue().discard();
+                        return true;
+                    }
+                    return false;
+                });
+                lastIdByPage.keySet().removeIf(p -> p >= pageIndex);
+                loadingPages.keySet().removeIf(p -> p >= pageIndex);
+                rowCount--;
+                fireTableRowsDeleted(row, row);
+                return;
+            }
+        }
+        // The row's position is unknown without its page, so fall back to a full reload
+        reload();
+    }
+
+    // --- Photo decoding ---
+
+    /**
+     * Tells the model which rows are on screen and which are just outside it. Photo decodes still queued for
+     * rows outside both sets are cancelled, and rows in the prefetch set are queued behind the visible ones.
+     */
+    public void updatePhotoWindow(int[] visibleRows, int[] prefetchRows) {
+        BitSet wanted = new BitSet();
+        for (int row : visibleRows) {
+            wanted.set(row);
+        }
+        for (int row : prefetchRows) {
+            wanted.set(row);
+        }
+        for (Page page : pageCache.values()) {
+            page.cancelDecodesOutside(wanted);
+        }
+        for (int row : prefetchRows) {
+            Page page = pageCache.get(row / pageSize);
+            int index = row % pageSize;
+            if (page != null && index < page.size()) {
+                page.getPhoto(index, ImageDecodeService.PRIORITY_PREFETCH);
+            }
+        }
+    }
+
+    // --- TableModel ---
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        switch (columnIndex) {
+            case ID_COLUMN: return Integer.class;
+            case PRICE_COLUMN: return Double.class;
+            case PHOTO_COLUMN: return ImageIcon.class;
+            default: return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == ACTIONS_COLUMN;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == ACTIONS_COLUMN) {
+            return "Actions";
+        }
+        Page page = getPage(row / pageSize);
+        int index = row % pageSize;
+        if (page == null || index >= page.size()) {
+            return null; // Still loading, or the table shrank since the row count was read
+        }
+        switch (column) {
+            case ID_COLUMN: return page.ids[index];
+            case NAME_COLUMN: return page.names[index];
+            case TYPE_COLUMN: return types.decode(page.typeCodes[index]);
+            // Formatted by PriceCellRenderer when painted
+            case PRICE_COLUMN: return page.prices[index];
+            case INGREDIENTS_COLUMN: return page.ingredients[index];
+            case INTRODUCTION_COLUMN: return page.introductions[index];
+            case PHOTO_COLUMN: return page.getPhoto(index, ImageDecodeService.PRIORITY_VISIBLE);
+            default: return "Actions";
+        }
+    }
+
+    /**
+     * One page of rows, stored column by column: primitive arrays for ids and prices, dictionary codes for types,
+     * and no Dish objects. A cached row costs a few array slots instead of an object graph, and painting a cell
+     * is an array read.
+     */
+    private class Page {
+        private final int pageIndex;
+        private int size = 0;
+        private int[] ids = new int[0];
+        private String[] names = new String[0];
+        private int[] typeCodes = new int[0];
+        private double[] prices = new double[0];
+        private String[] ingredients = new String[0];
+        private String[] introductions = new String[0];
+        private String[] photoPaths = new String[0];
+        private ImageIcon[] photos = new ImageIcon[0];
+        private boolean[] photoLoaded = new boolean[0];
+        private ImageDecodeService.DecodeTask[] pendingDecodes = new ImageDecodeService.DecodeTask[0];
+        private boolean discarded = false;
+        // Search pages are in relevance order, so only table pages can be binary searched by id
+        private final boolean idOrdered;
+
+        Page(int pageIndex, List<Dish> dishes, boolean idOrdered) {
+            this.pageIndex = pageIndex;
+            this.idOrdered = idOrdered;
+            resize(dishes.size());
+            for (Dish dish : dishes) {
+                set(size++, dish);
+            }
+        }
+
+        private void resize(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            ingredients = Arrays.copyOf(ingredients, capacity);
+            introductions = Arrays.copyOf(introductions, capacity);
+            photoPaths = Arrays.copyOf(photoPaths, capacity);
+            photos = Arrays.copyOf(photos, capacity);
+            photoLoaded = Arrays.copyOf(photoLoaded, capacity);
+            pendingDecodes = Arrays.copyOf(pendingDecodes, capacity);
+        }
+
+        private void set(int index, Dish dish) {
+            ids[index] = dish.getId();
+            names[index] = dish.getName();
+            typeCodes[index] = types.encode(dish.getType());
+            prices[index] = dish.getPrice();
+            ingredients[index] = dish.getIngredients();
+            introductions[index] = dish.getIntroduction();
+            photoPaths[index] = dish.getPhotoPath();
+        }
+
+        int size() {
+            return size;
+        }
+
+        Dish getDish(int index) {
+            return new Dish(ids[index], names[index], types.decode(typeCodes[index]), prices[index],
+                    ingredients[index], introductions[index], photoPaths[index]);
+        }
+
+        int indexOf(int dishId) {
+            if (idOrdered) {
+                int index = Arrays.binarySearch(ids, 0, size, dishId);
+                return index >= 0 ? index : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == dishId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void add(Dish dish) {
+            resize(size + 1);
+            set(size++, dish);
+        }
+
+        void replace(int index, Dish dish) {
+            // Only re-decode the photo if it actually changed
+            if (!Objects.equals(photoPaths[index], dish.getPhotoPath())) {
+                cancelDecode(index);
+                photos[index] = null;
+                photoLoaded[index] = false;
+            }
+            set(index, dish);
+        }
+
+        /**
+         * Photos are decoded on first paint, so rows that are never scrolled to never touch the disk.
+         * Until the background decode finishes the cell shows a placeholder.
+         */
+        ImageIcon getPhoto(int index, int priority) {
+            if (photoLoaded[index]) {
+                return photos[index];
+            }
+            if (pendingDecodes[index] == null) {
+                String path = photoPaths[index];
+                if (path == null || path.trim().isEmpty()) {
+                    photoLoaded[index] = true;
+                    return null;
+                }
+                BufferedImage ready = photoDecoder.getIfCached(path, photoSize, photoSize, false);
+                if (ready != null) {
+                    photos[index] = new ImageIcon(ready);
+                    photoLoaded[index] = true;
+                    return photos[index];
+                }
+                int dishId = ids[index];
+                pendingDecodes[index] = photoDecoder.submit(path, photoSize, photoSize, false, priority,
+                        image -> photoDecoded(index, dishId, path, image));
+            }
+            return photoPlaceholder;
+        }
+
+        // Runs on the EDT; the row may have moved or gone since the decode was queued
+        private void photoDecoded(int queuedIndex, int dishId, String path, BufferedImage image) {
+            int index = queuedIndex < size && ids[queuedIndex] == dishId ? queuedIndex : indexOf(dishId);
+            if (discarded || index < 0 || !Objects.equals(path, photoPaths[index])) {
+                return;
+            }
+            pendingDecodes[index] = null;
+            photos[index] = image != null ? new ImageIcon(image) : null;
+            photoLoaded[index] = true;
+            fireTableCellUpdated(pageIndex * pageSize + index, PHOTO_COLUMN);
+        }
+
+        void cancelDecodesOutside(BitSet wantedRows) {
+            for (int i = 0; i < size; i++) {
+                if (pendingDecodes[i] != null && !wantedRows.get(pageIndex * pageSize + i)) {
+                    cancelDecode(i);
+                }
+            }
+        }
+
+        private void cancelDecode(int index) {
+            if (pendingDecodes[index] != null) {
+                pendingDecodes[index].cancel();
+                pendingDecodes[index] = null;
+            }
+        }
+
+        void discard() {
+            discarded = true;
+            for (int i = 0; i < size; i++) {
+                cancelDecode(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dish.ui.table;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Renders a {@code Double} price as "12.50", the same text {@code String.format("%.2f")} gives, but without
+ * a Formatter per cell: the table repaints every visible price on each scroll step.
+ * Both paths use the format locale the renderer was created in, so "12,50" in a German locale either way.
+ */
+public class PriceCellRenderer extends DefaultTableCellRenderer {
+
+    private final StringBuilder text = new StringBuilder(16);
+    private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+    private final char decimalSeparator;
+    // Locales with their own digits or minus sign are left to Formatter entirely
+    private final boolean asciiDigits;
+
+    public PriceCellRenderer() {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        decimalSeparator = symbols.getDecimalSeparator();
+        asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-';
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        setText(value instanceof Double ? formatPrice((Double) value) : "");
+    }
+
+    String formatPrice(double price) {
+        double cents = Math.abs(price) * 100;
+        // Close to a half cent, or too big for a long, the rounding has to match Formatter exactly, so let it decide
+        if (!asciiDigits || Double.isNaN(cents) || cents >= 1e15 || Math.abs(cents - Math.floor(cents) - 0.5) < 1e-6) {
+            return String.format(locale, "%.2f", price);
+        }
+        long rounded = Math.round(cents);
+        text.setLength(0);
+        if (Double.doubleToRawLongBits(price) < 0) {
+            text.append('-'); // Formatter keeps the sign of a negative that rounds to zero, e.g. "-0.00"
+        }
+        text.append(rounded / 100).append(decimalSeparator);
+        long fraction = rounded % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dish.ui.table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct dish type to a small int, so a page keeps one int per row instead of its own copy of
+ * the type string. A catalog has a handful of types, so the dictionary is never trimmed. EDT only.
+ */
+final class TypeDictionary {
+
+    static final int NO_TYPE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> types = new ArrayList<>();
+
+    int encode(String type) {
+        if (type == null) {
+            return NO_TYPE;
+        }
+        Integer code = codes.get(type);
+        if (code == null) {
+            code = types.size();
+            codes.put(type, code);
+            types.add(type);
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return code == NO_TYPE ? null : types.get(code);
+    }
+}